@@ -4,7 +4,7 @@ import com.eaglebank.feature.account.service.BankAccountService;
 import com.eaglebank.feature.account.web.model.BankAccountResponse;
 import com.eaglebank.feature.account.web.model.CreateBankAccountRequest;
 import com.eaglebank.feature.account.web.model.UpdateBankAccountRequest;
-import com.eaglebank.feature.auth.JwtProvider;
+import com.eaglebank.feature.common.web.AuthenticatedUser;
 import com.eaglebank.feature.common.web.BaseController;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,10 +14,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.nio.file.AccessDeniedException;
 import java.util.List;
@@ -30,9 +30,7 @@ import java.util.UUID;
 public class BankAccountController extends BaseController {
     private final BankAccountService bankAccountService;
 
-    public BankAccountController(JwtProvider jwtProvider,
-                                 BankAccountService bankAccountService) {
-        super(jwtProvider);
+    public BankAccountController(BankAccountService bankAccountService) {
         this.bankAccountService = bankAccountService;
     }
 
@@ -47,8 +45,8 @@ public class BankAccountController extends BaseController {
     })
     public ResponseEntity<BankAccountResponse> createAccount(@PathVariable UUID userId,
                                                              @Valid @RequestBody CreateBankAccountRequest account,
-                                                             @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) throws AccessDeniedException {
-        validateUserId(userId, authHeader);
+                                                             @AuthenticatedUser UUID authenticatedUserId) throws AccessDeniedException {
+        validateUserId(userId, authenticatedUserId);
         BankAccountResponse response = bankAccountService.createAccount(userId, account);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -56,34 +54,44 @@ public class BankAccountController extends BaseController {
     @GetMapping("/{accountId}")
     @Operation(
             summary = "Fetch bank account by account id",
-            description = "Retrieves a bank account by its unique account ID."
+            description = "Retrieves a bank account by its unique account ID. Send the returned ETag as " +
+                    "If-None-Match to get a 304 while the account is unchanged."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Bank account found",
                     content = @Content(schema = @Schema(implementation = BankAccountResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Account unchanged since the given ETag or date"),
             @ApiResponse(responseCode = "401", description = "Access token is missing or invalid"),
             @ApiResponse(responseCode = "404", description = "Bank account not found"),
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
     public BankAccountResponse getAccount(@PathVariable UUID accountId,
-                                          @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) {
-        UUID userId = getAuthenticatedUserId(authHeader);
+                                          @AuthenticatedUser UUID userId,
+                                          ServletWebRequest request) {
+        if (notModified(request, bankAccountService.getAccountVersion(accountId, userId))) {
+            return null;
+        }
         return bankAccountService.getAccountForUser(accountId, userId);
     }
 
     @GetMapping
     @Operation(
             summary = "Fetch all bank accounts for the authenticated user",
-            description = "Retrieves all bank accounts associated with the authenticated user."
+            description = "Retrieves all bank accounts associated with the authenticated user. Send the " +
+                    "returned ETag as If-None-Match to get a 304 while none of them has changed."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of bank accounts",
                     content = @Content(schema = @Schema(implementation = BankAccountResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Accounts unchanged since the given ETag"),
             @ApiResponse(responseCode = "401", description = "Access token is missing or invalid"),
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
-    public List<BankAccountResponse> getAccountsForUser(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) {
-        UUID userId = getAuthenticatedUserId(authHeader);
+    public List<BankAccountResponse> getAccountsForUser(@AuthenticatedUser UUID userId,
+                                                        ServletWebRequest request) {
+        if (notModified(request, bankAccountService.getAccountsVersion(userId))) {
+            return null;
+        }
         return bankAccountService.getAccountsByUserId(userId);
     }
 
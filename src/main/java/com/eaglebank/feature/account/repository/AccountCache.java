@@ -0,0 +1,126 @@
+package com.eaglebank.feature.account.repository;
+
+import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of committed {@link BankAccount} rows, bounded with Caffeine's TinyLFU eviction.
+ * <p>
+ * A write evicts the account at once and again when its transaction completes, so readers never see the
+ * pre-commit row once the commit is visible, and a rolled back write leaves nothing behind. Each eviction also
+ * bumps a generation counter for the account's stripe; a load only populates the cache if no eviction on its
+ * stripe happened while it was reading, which stops a load that read the old row just before a commit from
+ * putting it back afterwards. Within a transaction that has written an account, reads of that account bypass the
+ * cache so uncommitted rows are never shared. Callers get their own copy of each cached row.
+ * <p>
+ * Invalidation only reaches this node's cache. Entries also expire a short time after they were loaded, which
+ * bounds how long a node can serve a balance after another instance has committed a write to it.
+ */
+@Component
+public class AccountCache {
+    private static final int STRIPES = 1024;
+    private final Cache<UUID, BankAccount> accounts;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public AccountCache(MeterRegistry meterRegistry,
+                        @Value("${eaglebank.account.cache.size:10000}") long cacheSize,
+                        @Value("${eaglebank.account.cache.ttl:2s}") Duration ttl) {
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, accounts, "accounts");
+    }
+
+    /**
+     * Returns a copy of the cached account, or loads it. A loader may return {@code null} for a row it did not
+     * find; nothing is cached then.
+     */
+    BankAccount get(UUID accountId, Function<UUID, BankAccount> loader) {
+        if (writtenInCurrentTransaction(accountId)) {
+            return loader.apply(accountId);
+        }
+        BankAccount cached = accounts.getIfPresent(accountId);
+        if (cached != null) {
+            return cached.toBuilder().build();
+        }
+        int stripe = stripe(accountId);
+        long generation = generations.get(stripe);
+        BankAccount loaded = loader.apply(accountId);
+        if (loaded == null) {
+            return null;
+        }
+        // Runs under the same map lock as the eviction, so the generation check and the put cannot interleave
+        // with a concurrent invalidation of this account
+        accounts.asMap().compute(accountId, (id, current) ->
+                generations.get(stripe) == generation ? loaded.toBuilder().build() : current);
+        return loaded;
+    }
+
+    /**
+     * Evicts the account now and, inside a transaction, once more after it commits or rolls back.
+     */
+    void invalidate(UUID accountId) {
+        evict(accountId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        InvalidateOnCompletion pending = (InvalidateOnCompletion) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new InvalidateOnCompletion();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.written.add(accountId);
+    }
+
+    private boolean writtenInCurrentTransaction(UUID accountId) {
+        InvalidateOnCompletion pending = (InvalidateOnCompletion) TransactionSynchronizationManager.getResource(this);
+        return pending != null && pending.written.contains(accountId);
+    }
+
+    private void evict(UUID accountId) {
+        generations.incrementAndGet(stripe(accountId));
+        accounts.invalidate(accountId);
+    }
+
+    private static int stripe(UUID accountId) {
+        int hash = accountId.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private final class InvalidateOnCompletion implements TransactionSynchronization {
+        private final Set<UUID> written = new HashSet<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(AccountCache.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(AccountCache.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AccountCache.this);
+            written.forEach(AccountCache.this::evict);
+        }
+    }
+}
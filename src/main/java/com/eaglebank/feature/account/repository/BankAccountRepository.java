@@ -1,26 +1,62 @@
 package com.eaglebank.feature.account.repository;
 
+import com.eaglebank.feature.account.repository.domain.BalanceUpdate;
+import com.eaglebank.feature.account.repository.domain.BalanceUpdateOutcome;
 import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.eaglebank.feature.account.web.model.AccountType;
 import com.eaglebank.feature.common.exception.ResourceNotFoundException;
+import com.eaglebank.feature.common.web.ResourceVersion;
 import org.springframework.dao.DataAccessException;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public class BankAccountRepository {
+    // Selected explicitly so the mapper can read by position; keep the two in the same order
+    private static final String BANK_ACCOUNT_COLUMNS = "account_id, user_id, name, account_type, account_number, " +
+            "sort_code, balance, last_sequence_number, currency, created_timestamp, updated_timestamp, version";
+    private static final RowMapper<BankAccount> BANK_ACCOUNT_ROW_MAPPER = (rs, rowNum) -> {
+        String accountType = rs.getString(4);
+        return BankAccount.builder()
+                .accountId(rs.getObject(1, UUID.class))
+                .userId(rs.getObject(2, UUID.class))
+                .name(rs.getString(3))
+                .accountType(accountType != null ? AccountType.valueOf(accountType) : null)
+                .accountNumber(rs.getString(5))
+                .sortCode(rs.getString(6))
+                .balance(rs.getLong(7))
+                .lastSequenceNumber(rs.getLong(8))
+                .currency(rs.getString(9))
+                .createdTimestamp(rs.getObject(10, ZonedDateTime.class))
+                .updatedTimestamp(rs.getObject(11, ZonedDateTime.class))
+                .version(rs.getLong(12))
+                .build();
+    };
+    // Ledger timestamps are handed out in UTC, the same as rows read back by TransactionRepository
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final RowMapper<BalanceUpdate> BALANCE_UPDATE_ROW_MAPPER = (rs, rowNum) ->
+            BalanceUpdate.applied(rs.getLong("balance"), rs.getLong("last_sequence_number"),
+                    rs.getTimestamp("updated_timestamp").toInstant().atZone(UTC));
     private final JdbcTemplate jdbcTemplate;
+    private final AccountCache accountCache;
 
-    public BankAccountRepository(JdbcTemplate jdbcTemplate) {
+    public BankAccountRepository(JdbcTemplate jdbcTemplate, AccountCache accountCache) {
         this.jdbcTemplate = jdbcTemplate;
+        this.accountCache = accountCache;
     }
 
     public UUID createAccount(UUID userId, BankAccount bankAccount) {
@@ -33,7 +69,7 @@ public class BankAccountRepository {
             ps.setString(3, bankAccount.getAccountType().name());
             ps.setString(4, bankAccount.getAccountNumber());
             ps.setString(5, bankAccount.getSortCode());
-            ps.setObject(6, bankAccount.getBalance());
+            ps.setLong(6, bankAccount.getBalance());
             ps.setString(7, bankAccount.getCurrency());
             ps.setObject(8, userId);
             return ps;
@@ -41,52 +77,170 @@ public class BankAccountRepository {
         return (UUID) keyHolder.getKeyList().getFirst().get("account_id");
     }
 
+    /**
+     * Served from the {@link AccountCache} when possible. Every method below that changes the row invalidates it.
+     */
     public BankAccount getAccount(UUID accountId) {
-        String sql = "SELECT * FROM bank_account WHERE account_id = ?";
+        return accountCache.get(accountId, this::loadAccount);
+    }
+
+    private BankAccount loadAccount(UUID accountId) {
+        String sql = "SELECT " + BANK_ACCOUNT_COLUMNS + " FROM bank_account WHERE account_id = ?";
         try {
-            return jdbcTemplate.queryForObject(sql, new BeanPropertyRowMapper<>(BankAccount.class), accountId);
+            return jdbcTemplate.queryForObject(sql, BANK_ACCOUNT_ROW_MAPPER, accountId);
         } catch (DataAccessException e) {
             throw new ResourceNotFoundException("Resource not found for accountId: " + accountId);
         }
     }
 
+    /**
+     * Returns the account only if {@code userId} owns it, with the owner as part of the query. An empty result
+     * does not say whether the account exists; {@link #getAccountOwner} tells the two apart.
+     */
+    public Optional<BankAccount> getAccountForOwner(UUID accountId, UUID userId) {
+        BankAccount account = accountCache.get(accountId, id -> {
+            String sql = "SELECT " + BANK_ACCOUNT_COLUMNS + " FROM bank_account WHERE account_id = ? AND user_id = ?";
+            return jdbcTemplate.query(sql, BANK_ACCOUNT_ROW_MAPPER, id, userId).stream().findFirst().orElse(null);
+        });
+        return account != null && userId.equals(account.getUserId()) ? Optional.of(account) : Optional.empty();
+    }
+
+    public Optional<UUID> getAccountOwner(UUID accountId) {
+        String sql = "SELECT user_id FROM bank_account WHERE account_id = ?";
+        return jdbcTemplate.queryForList(sql, UUID.class, accountId).stream().findFirst();
+    }
+
+    /**
+     * Validator for an account's ledger: every posting advances {@code last_sequence_number} in the same
+     * statement that writes the row, so it changes exactly when the history does.
+     */
+    public Optional<ResourceVersion> getLedgerVersion(UUID accountId, UUID userId) {
+        String sql = "SELECT last_sequence_number FROM bank_account WHERE account_id = ? AND user_id = ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> ResourceVersion.of(Long.toString(rs.getLong(1))),
+                accountId, userId).stream().findFirst();
+    }
+
+    /**
+     * Validator for the list of a user's accounts. The count moves on create and delete, and the version sum and
+     * latest update on every change to a listed row.
+     */
+    public ResourceVersion getAccountsVersion(UUID userId) {
+        String sql = "SELECT COUNT(*), COALESCE(SUM(version), 0), MAX(updated_timestamp) FROM bank_account WHERE user_id = ?";
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            ZonedDateTime latest = rs.getObject(3, ZonedDateTime.class);
+            long latestMicros = latest == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, latest.toInstant());
+            return ResourceVersion.of(rs.getLong(1) + "-" + rs.getLong(2) + "-" + latestMicros);
+        }, userId);
+    }
+
+    /**
+     * Updates the account details only. The balance is left alone: it only ever changes through the guarded
+     * updates below, which keep it in step with the ledger.
+     */
     public void updateAccount(UUID accountId, BankAccount account) {
-        String sql = "UPDATE bank_account SET name = ?, account_type = ?, balance = ?, " +
-                "updated_timestamp = CURRENT_TIMESTAMP WHERE account_id = ?";
+        String sql = "UPDATE bank_account SET name = ?, account_type = ?, " +
+                "version = version + 1, updated_timestamp = CURRENT_TIMESTAMP WHERE account_id = ?";
         jdbcTemplate.update(sql,
                 account.getName(),
                 account.getAccountType().name(),
-                account.getBalance(),
                 accountId
         );
+        accountCache.invalidate(accountId);
     }
 
     public void deleteAccount(UUID accountId) {
         jdbcTemplate.update("DELETE FROM bank_account WHERE account_id = ?", accountId);
+        accountCache.invalidate(accountId);
     }
 
-    public BigDecimal getBalance(UUID accountId, UUID userId) {
-        String sql = "SELECT balance FROM bank_account WHERE account_id = ? AND user_id = ?";
-        return jdbcTemplate.queryForObject(sql, new Object[]{accountId, userId}, BigDecimal.class);
+    /**
+     * Debits the account in one statement that checks ownership and funds together, so concurrent
+     * withdrawals can never take the balance below zero. The same statement advances the account's sequence
+     * number and hands back the new balance, sequence and update time, so the ledger row and the response can
+     * record them without another read.
+     */
+    public BalanceUpdate withdrawBalance(long amount, UUID accountId, UUID userId) {
+        String sql = "SELECT balance, last_sequence_number, updated_timestamp FROM FINAL TABLE (" +
+                "UPDATE bank_account SET balance = balance - ?, last_sequence_number = last_sequence_number + 1, " +
+                "version = version + 1, updated_timestamp = CURRENT_TIMESTAMP WHERE account_id = ? AND user_id = ? AND balance >= ?)";
+        List<BalanceUpdate> updated = jdbcTemplate.query(sql, BALANCE_UPDATE_ROW_MAPPER, amount, accountId, userId, amount);
+        accountCache.invalidate(accountId);
+        return updated.isEmpty() ? BalanceUpdate.rejected(rejectedUpdateOutcome(accountId, userId)) : updated.getFirst();
     }
 
-    public void withdrawBalance(BigDecimal amount, UUID accountId) {
-        String sql = "UPDATE bank_account SET balance = balance - ?, updated_timestamp = CURRENT_TIMESTAMP WHERE account_id = ? ";
-        jdbcTemplate.update(sql, amount, accountId);
+    public BalanceUpdate depositBalance(long amount, UUID accountId, UUID userId) {
+        String sql = "SELECT balance, last_sequence_number, updated_timestamp FROM FINAL TABLE (" +
+                "UPDATE bank_account SET balance = balance + ?, last_sequence_number = last_sequence_number + 1, " +
+                "version = version + 1, updated_timestamp = CURRENT_TIMESTAMP WHERE account_id = ? AND user_id = ?)";
+        List<BalanceUpdate> updated = jdbcTemplate.query(sql, BALANCE_UPDATE_ROW_MAPPER, amount, accountId, userId);
+        accountCache.invalidate(accountId);
+        return updated.isEmpty() ? BalanceUpdate.rejected(rejectedUpdateOutcome(accountId, userId)) : updated.getFirst();
     }
 
-    public void depositBalance(BigDecimal amount, UUID accountId) {
-        String sql = "UPDATE bank_account SET balance = balance + ?, updated_timestamp = CURRENT_TIMESTAMP WHERE account_id = ?";
-        jdbcTemplate.update(sql, amount, accountId);
+    /**
+     * Reads the owner, balance and sequence number while taking the row lock, so a caller can apply several
+     * movements against a balance that cannot change underneath it until the transaction ends.
+     */
+    public BankAccount lockAccountBalance(UUID accountId) {
+        String sql = "SELECT user_id, balance, last_sequence_number FROM bank_account WHERE account_id = ? FOR UPDATE";
+        List<BankAccount> accounts = jdbcTemplate.query(sql, (rs, rowNum) -> BankAccount.builder()
+                .accountId(accountId)
+                .userId(rs.getObject("user_id", UUID.class))
+                .balance(rs.getLong("balance"))
+                .lastSequenceNumber(rs.getLong("last_sequence_number"))
+                .build(), accountId);
+        if (accounts.isEmpty()) {
+            throw new ResourceNotFoundException("Resource not found for accountId: " + accountId);
+        }
+        return accounts.getFirst();
     }
 
-    public Integer countBankAccounts(UUID accountId, UUID userId) {
-        String sql = "SELECT COUNT(*) FROM bank_account WHERE account_id = ? AND user_id = ? ";
-        return jdbcTemplate.queryForObject(sql, Integer.class, accountId, userId);
+    /**
+     * Applies the net change of {@code postings} ledger rows to an account locked by {@link #lockAccountBalance}.
+     */
+    public void applyBalanceDelta(long delta, int postings, UUID accountId) {
+        String sql = "UPDATE bank_account SET balance = balance + ?, last_sequence_number = last_sequence_number + ?, " +
+                "version = version + 1, updated_timestamp = CURRENT_TIMESTAMP WHERE account_id = ?";
+        jdbcTemplate.update(sql, delta, postings, accountId);
+        accountCache.invalidate(accountId);
+    }
+
+    // Only reached when a guarded update matched no row, so the extra lookup stays off the happy path
+    private BalanceUpdateOutcome rejectedUpdateOutcome(UUID accountId, UUID userId) {
+        Optional<UUID> owner = getAccountOwner(accountId);
+        if (owner.isEmpty()) {
+            return BalanceUpdateOutcome.ACCOUNT_NOT_FOUND;
+        }
+        if (!owner.get().equals(userId)) {
+            return BalanceUpdateOutcome.NOT_OWNER;
+        }
+        return BalanceUpdateOutcome.INSUFFICIENT_FUNDS;
     }
 
     public List<BankAccount> getAccountsByUserId(UUID userId) {
-        String sql = "SELECT * FROM bank_account WHERE user_id = ?";
-        return jdbcTemplate.query(sql, new BeanPropertyRowMapper<>(BankAccount.class), userId);
+        String sql = "SELECT " + BANK_ACCOUNT_COLUMNS + " FROM bank_account WHERE user_id = ?";
+        return jdbcTemplate.query(sql, BANK_ACCOUNT_ROW_MAPPER, userId);
+    }
+
+    /**
+     * Returns up to {@code limit} account ids greater than {@code after} and no greater than {@code upTo} in id
+     * order. A {@code null} bound leaves that end open, so every account, or a range of them, can be visited in
+     * pages off the primary key.
+     */
+    public List<UUID> getAccountIdsAfter(UUID after, UUID upTo, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT account_id FROM bank_account WHERE 1 = 1");
+        List<Object> args = new ArrayList<>(3);
+        // Only the bounds given are added, so each page stays a plain range scan of the primary key
+        if (after != null) {
+            sql.append(" AND account_id > ?");
+            args.add(after);
+        }
+        if (upTo != null) {
+            sql.append(" AND account_id <= ?");
+            args.add(upTo);
+        }
+        sql.append(" ORDER BY account_id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.queryForList(sql.toString(), UUID.class, args.toArray());
     }
 }
@@ -0,0 +1,19 @@
+package com.eaglebank.feature.account.repository.domain;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Result of a guarded balance update. When it was applied, {@code balance}, {@code sequenceNumber} and
+ * {@code timestamp} are the values the update left on the account row, read back by the same statement. The
+ * timestamp is the DB transaction's {@code CURRENT_TIMESTAMP}, so it is also the time the ledger row is stamped with.
+ */
+public record BalanceUpdate(BalanceUpdateOutcome outcome, long balance, long sequenceNumber, ZonedDateTime timestamp) {
+
+    public static BalanceUpdate applied(long balance, long sequenceNumber, ZonedDateTime timestamp) {
+        return new BalanceUpdate(BalanceUpdateOutcome.APPLIED, balance, sequenceNumber, timestamp);
+    }
+
+    public static BalanceUpdate rejected(BalanceUpdateOutcome outcome) {
+        return new BalanceUpdate(outcome, 0, 0, null);
+    }
+}
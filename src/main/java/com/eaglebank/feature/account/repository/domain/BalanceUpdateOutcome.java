@@ -0,0 +1,12 @@
+package com.eaglebank.feature.account.repository.domain;
+
+/**
+ * Result of a guarded balance update. The update itself is a single statement; when it touches no row
+ * the outcome explains why so the service can map it to 404, 403 or 422.
+ */
+public enum BalanceUpdateOutcome {
+    APPLIED,
+    ACCOUNT_NOT_FOUND,
+    NOT_OWNER,
+    INSUFFICIENT_FUNDS
+}
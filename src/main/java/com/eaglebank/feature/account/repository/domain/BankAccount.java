@@ -6,12 +6,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class BankAccount {
@@ -21,9 +20,14 @@ public class BankAccount {
     private AccountType accountType;
     private String accountNumber;
     private String sortCode;
-    private BigDecimal balance;
+    // Minor units (pence)
+    private long balance;
+    // Sequence number of the latest ledger row posted to the account
+    private long lastSequenceNumber;
     private String currency;
     private ZonedDateTime createdTimestamp;
     private ZonedDateTime updatedTimestamp;
+    // Bumped by every update to the row
+    private long version;
 }
 
@@ -9,11 +9,13 @@ import com.eaglebank.feature.account.web.model.CreateBankAccountRequest;
 import com.eaglebank.feature.account.web.model.UpdateBankAccountRequest;
 import com.eaglebank.feature.common.exception.IdentityException;
 import com.eaglebank.feature.common.exception.ResourceNotFoundException;
+import com.eaglebank.feature.common.money.MinorUnits;
+import com.eaglebank.feature.common.web.ResourceVersion;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -51,6 +53,22 @@ public class BankAccountService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Validator for the account list; see {@link BankAccountRepository#getAccountsVersion}.
+     */
+    public Optional<ResourceVersion> getAccountsVersion(UUID userId) {
+        return Optional.of(bankAccountRepository.getAccountsVersion(userId));
+    }
+
+    /**
+     * Validator for the account as {@code userId} sees it, taken from the same cached row the response is built
+     * from, so the tag always describes the body sent with it. Empty when the caller cannot see the account.
+     */
+    public Optional<ResourceVersion> getAccountVersion(UUID accountId, UUID userId) {
+        return bankAccountRepository.getAccountForOwner(accountId, userId)
+                .map(account -> ResourceVersion.of(Long.toString(account.getVersion())));
+    }
+
     @Transactional
     public void updateAccount(UUID accountId, UpdateBankAccountRequest updateBankAccountRequest) {
         BankAccount bankAccount = bankAccountRepository.getAccount(accountId);
@@ -73,7 +91,7 @@ public class BankAccountService {
                 .accountNumber(accountNumber)
                 .accountType(accountType)
                 .sortCode(sortcode)
-                .balance(BigDecimal.ZERO)
+                .balance(0)
                 .currency(CURRENCY)
                 .name(name)
                 .build();
@@ -87,24 +105,22 @@ public class BankAccountService {
                 .sortCode(bankAccount.getSortCode())
                 .accountType(bankAccount.getAccountType())
                 .name(bankAccount.getName())
-                .balance(bankAccount.getBalance())
+                .balance(MinorUnits.toDecimal(bankAccount.getBalance()))
                 .currency(bankAccount.getCurrency())
                 .build();
     }
 
+    /**
+     * Reads the account with its owner in the query; only when nothing comes back is the account looked up again
+     * to tell a missing account from someone else's.
+     */
     public BankAccountResponse getAccountForUser(UUID accountId, UUID userId) {
-        BankAccount bankAccount;
-        try {
-            bankAccount = bankAccountRepository.getAccount(accountId);
-        } catch (Exception e) {
-            throw new ResourceNotFoundException("Bank account not found");
-        }
-        if (bankAccount == null) {
-            throw new ResourceNotFoundException("Bank account not found");
-        }
-        if (!bankAccount.getUserId().equals(userId)) {
-            throw new IdentityException("You are not authorized to access this bank account.");
-        }
+        BankAccount bankAccount = bankAccountRepository.getAccountForOwner(accountId, userId).orElseThrow(() -> {
+            if (bankAccountRepository.getAccountOwner(accountId).isEmpty()) {
+                return new ResourceNotFoundException("Bank account not found");
+            }
+            return new IdentityException("You are not authorized to access this bank account.");
+        });
         return bankAccountResponse(userId, accountId, bankAccount);
     }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.eaglebank.feature.auth;
+
+import io.jsonwebtoken.Jwts;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The HMAC keys tokens may be signed with, by key id. New tokens are signed with the active key and carry its
+ * id in the {@code kid} header; any key in the ring verifies, so a rotation adds the new key to every node
+ * first, then makes it active, and drops the old key once the tokens signed with it have expired.
+ */
+@Slf4j
+public final class JwtKeyRing {
+    private final String activeKeyId;
+    private final Map<String, SecretKey> keys;
+
+    public JwtKeyRing(String activeKeyId, Map<String, SecretKey> keys) {
+        if (!keys.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("Active signing key " + activeKeyId + " is not in the key ring");
+        }
+        this.activeKeyId = activeKeyId;
+        this.keys = Collections.unmodifiableMap(new HashMap<>(keys));
+    }
+
+    /**
+     * Loads every secret key entry of the keystore, using the entry alias as the key id.
+     */
+    public static JwtKeyRing load(InputStream keystore, String type, char[] password, String activeKeyId)
+            throws IOException, GeneralSecurityException {
+        KeyStore store = KeyStore.getInstance(type);
+        store.load(keystore, password);
+        Map<String, SecretKey> keys = new HashMap<>();
+        for (String alias : Collections.list(store.aliases())) {
+            Key key = store.getKey(alias, password);
+            if (key instanceof SecretKey secretKey) {
+                keys.put(alias, secretKey);
+            }
+        }
+        log.info("Loaded {} JWT signing key(s), active key {}", keys.size(), activeKeyId);
+        return new JwtKeyRing(activeKeyId, keys);
+    }
+
+    /**
+     * A single random key that only this process knows. Tokens it signs stop verifying on restart and on
+     * other nodes, so it is only fit for local runs and tests.
+     */
+    public static JwtKeyRing ephemeral() {
+        String keyId = UUID.randomUUID().toString();
+        return new JwtKeyRing(keyId, Map.of(keyId, Jwts.SIG.HS256.key().build()));
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public SecretKey getActiveKey() {
+        return keys.get(activeKeyId);
+    }
+
+    public SecretKey getKey(String keyId) {
+        return keyId == null ? null : keys.get(keyId);
+    }
+}
@@ -1,55 +1,173 @@
 package com.eaglebank.feature.auth;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.UUID;
 
+/**
+ * Issues and verifies tokens. Tokens are signed with the active key of the {@link JwtKeyRing} and name it in
+ * their {@code kid} header, which verification uses to pick the key. Verified tokens are remembered by the
+ * SHA-256 of the token, so a client presenting the same token again skips the signature check until the cache
+ * entry or the token expires, whichever comes first. Tokens that fail verification are never cached.
+ * <p>
+ * Access tokens are short-lived and carry a {@code jti}; a token revoked before it expires is rejected through
+ * {@link RevokedTokens}, including when it is found in the cache. Longer sessions are kept by refresh tokens.
+ */
 @Component
 public class JwtProvider {
-    // Secret key should be stored securely, this is just an example
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    private final long EXPIRATION_TIME = 86400000; // 1 day
+    private final JwtKeyRing keyRing;
+    private final RevokedTokens revokedTokens;
+    private final Duration accessTokenTtl;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final Timer verifyLatency;
+
+    public JwtProvider(JwtKeyRing keyRing,
+                       RevokedTokens revokedTokens,
+                       MeterRegistry meterRegistry,
+                       @Value("${eaglebank.auth.access-token-ttl:5m}") Duration accessTokenTtl,
+                       @Value("${eaglebank.auth.token-cache.size:10000}") long cacheSize,
+                       @Value("${eaglebank.auth.token-cache.ttl:5m}") Duration cacheTtl) {
+        this.keyRing = keyRing;
+        this.revokedTokens = revokedTokens;
+        this.accessTokenTtl = accessTokenTtl;
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        Key key = keyRing.getKey(header.getKeyId());
+                        if (key == null) {
+                            throw new JwtException("Unknown signing key: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new TokenExpiry(cacheTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verified-tokens");
+        this.verifyLatency = Timer.builder("eaglebank.auth.token.verify")
+                .description("Time to check a token signature and read its claims")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
 
     public String generateToken(UUID userId) {
+        Instant now = Instant.now();
         return Jwts.builder()
+                .header().keyId(keyRing.getActiveKeyId()).and()
+                .id(UUID.randomUUID().toString())
                 .subject(userId.toString())
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(key)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(accessTokenTtl)))
+                .signWith(keyRing.getActiveKey())
                 .compact();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith((SecretKey) key)
-                    .build()
-                    .parseSignedClaims(token);
+            verify(token);
             return true;
-        } catch (JwtException ex) {
+        } catch (JwtException | IllegalArgumentException ex) {
             return false;
         }
     }
 
     public UUID getUserId(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith((SecretKey) key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return UUID.fromString(claims.getSubject()); // userId
+            return verify(token).userId();
         } catch (JwtException | IllegalArgumentException e) {
             throw new RuntimeException("Invalid or expired token", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Revokes a token this provider accepts, so it is refused from now until it expires. Tokens that do not
+     * verify are ignored.
+     */
+    public void revoke(String token) {
+        try {
+            VerifiedToken verified = verify(token);
+            revokedTokens.revoke(verified.tokenId(), verified.expiresAt());
+        } catch (JwtException | IllegalArgumentException ignored) {
+            // Already unusable
+        }
+    }
+
+    private VerifiedToken verify(String token) {
+        String tokenHash = sha256(token);
+        VerifiedToken verified = verifiedTokens.getIfPresent(tokenHash);
+        if (verified == null || !verified.expiresAt().isAfter(Instant.now())) {
+            verified = verifyLatency.record(() -> {
+                Claims claims = parser.parseSignedClaims(token).getPayload();
+                return new VerifiedToken(claims.getId(), UUID.fromString(claims.getSubject()),
+                        claims.getExpiration().toInstant());
+            });
+            verifiedTokens.put(tokenHash, verified);
+        }
+        if (revokedTokens.isRevoked(verified.tokenId())) {
+            throw new JwtException("Token has been revoked");
+        }
+        return verified;
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record VerifiedToken(String tokenId, UUID userId, Instant expiresAt) {
+    }
+
+    // Entries live for the cache TTL but never past the expiry of the token they vouch for
+    private record TokenExpiry(Duration ttl) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String tokenHash, VerifiedToken verified, long currentTime) {
+            Duration untilTokenExpiry = Duration.between(Instant.now(), verified.expiresAt());
+            return Math.max(0, (untilTokenExpiry.compareTo(ttl) < 0 ? untilTokenExpiry : ttl).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenHash, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenHash, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenHash, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.eaglebank.feature.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Ids of access tokens that were revoked before they expired. Each id is held only until the token it names
+ * expires, after which the token is rejected anyway, so the set stays as small as the number of revocations
+ * within one access token lifetime. The set is local to this instance.
+ */
+@Component
+public class RevokedTokens {
+    private final Cache<String, Instant> revoked;
+
+    public RevokedTokens(MeterRegistry meterRegistry) {
+        this.revoked = Caffeine.newBuilder()
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+        Gauge.builder("eaglebank.auth.revoked-tokens", revoked, Cache::estimatedSize)
+                .description("Revoked access tokens that have not expired yet")
+                .register(meterRegistry);
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (expiresAt.isAfter(Instant.now())) {
+            revoked.put(tokenId, expiresAt);
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.getIfPresent(tokenId) != null;
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Instant> {
+
+        @Override
+        public long expireAfterCreate(String tokenId, Instant expiresAt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenId, expiresAt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
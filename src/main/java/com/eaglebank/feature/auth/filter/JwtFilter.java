@@ -5,49 +5,81 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
 
+/**
+ * The single authentication point. Every request outside the public endpoints must carry a valid bearer token;
+ * the verified user id is stored on the request under {@link #AUTHENTICATED_USER_ID}, where controllers pick it
+ * up through {@link com.eaglebank.feature.common.web.AuthenticatedUser}. Actuator endpoints other than health are
+ * for operators only: the token must belong to one of the configured operator user ids.
+ */
+@Component
 @Order(1)
 public class JwtFilter extends OncePerRequestFilter {
 
     public static final String AUTHORIZATION = "Authorization";
+    public static final String AUTHENTICATED_USER_ID = JwtFilter.class.getName() + ".AUTHENTICATED_USER_ID";
+    private static final String BEARER = "Bearer ";
     private final JwtProvider jwtProvider;
+    private final Set<UUID> operatorUserIds;
 
-    public JwtFilter(JwtProvider jwtProvider) {
+    public JwtFilter(JwtProvider jwtProvider,
+                     @Value("${eaglebank.auth.operator-user-ids:}") Set<UUID> operatorUserIds) {
         this.jwtProvider = jwtProvider;
+        this.operatorUserIds = Set.copyOf(operatorUserIds);
     }
 
     @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
-            throws ServletException, IOException {
+    protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
         String method = request.getMethod();
-        // Skip JWT check for POST /users (registration) and POST /auth/login
-        if ((path.equals("/actuator")) || (path.equals("/v1/users") && method.equals("POST")) ||
-                (path.equals("/v1/auth/login") && method.equals("POST"))) {
-            filterChain.doFilter(request, response);
+        // Registration, login, token refresh, health checks and the API docs are open. The rest of actuator
+        // exposes operational data and needs an operator's token
+        return (path.equals("/v1/users") && method.equals("POST")) ||
+                (path.equals("/v1/auth/login") && method.equals("POST")) ||
+                (path.equals("/v1/auth/refresh") && method.equals("POST")) ||
+                path.equals("/actuator/health") || path.startsWith("/actuator/health/") ||
+                path.startsWith("/v3/api-docs") || path.startsWith("/swagger-ui");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final String token = bearerToken(request);
+        if (token == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Authorization header missing or invalid");
             return;
         }
 
-        final String authHeader = request.getHeader(AUTHORIZATION);
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
+        UUID userId;
+        try {
+            userId = jwtProvider.getUserId(token);
+        } catch (RuntimeException e) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT Token");
+            return;
+        }
 
-            if (!jwtProvider.validateToken(token)) {
-                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT Token");
-                return;
-            }
-        } else if (!request.getRequestURI().contains("/auth/login") &&
-                !request.getRequestURI().contains("/users")) {
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Authorization header missing or invalid");
+        if (request.getRequestURI().startsWith("/actuator") && !operatorUserIds.contains(userId)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Operator access required");
             return;
         }
 
+        request.setAttribute(AUTHENTICATED_USER_ID, userId);
         filterChain.doFilter(request, response);
     }
-}
 
+    /**
+     * Returns the token from the {@code Authorization: Bearer} header, or {@code null} when there is none.
+     */
+    public static String bearerToken(HttpServletRequest request) {
+        String authHeader = request.getHeader(AUTHORIZATION);
+        return authHeader != null && authHeader.startsWith(BEARER) ? authHeader.substring(BEARER.length()) : null;
+    }
+}
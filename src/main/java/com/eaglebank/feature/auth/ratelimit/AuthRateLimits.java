@@ -0,0 +1,83 @@
+package com.eaglebank.feature.auth.ratelimit;
+
+import com.eaglebank.feature.common.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Throttles login and registration per client IP and per email. Controllers call it before handing the
+ * request to a service, so a refused attempt costs neither a password hash nor a query.
+ */
+@Component
+public class AuthRateLimits {
+    private final Limit login;
+    private final Limit registration;
+
+    public AuthRateLimits(MeterRegistry meterRegistry,
+                          @Value("${eaglebank.rate-limit.max-keys:100000}") long maxKeys,
+                          @Value("${eaglebank.rate-limit.login.capacity:10}") int loginCapacity,
+                          @Value("${eaglebank.rate-limit.login.refill-period:6s}") Duration loginRefillPeriod,
+                          @Value("${eaglebank.rate-limit.registration.capacity:5}") int registrationCapacity,
+                          @Value("${eaglebank.rate-limit.registration.refill-period:1m}") Duration registrationRefillPeriod) {
+        this.login = new Limit("login", new TokenBucketRateLimiter(loginCapacity, loginRefillPeriod, maxKeys, Ticker.systemTicker()),
+                meterRegistry);
+        this.registration = new Limit("registration",
+                new TokenBucketRateLimiter(registrationCapacity, registrationRefillPeriod, maxKeys, Ticker.systemTicker()),
+                meterRegistry);
+    }
+
+    public void checkLogin(String clientIp, String email) {
+        login.check(clientIp, email);
+    }
+
+    public void checkRegistration(String clientIp, String email) {
+        registration.check(clientIp, email);
+    }
+
+    private static final class Limit {
+        private final TokenBucketRateLimiter limiter;
+        private final Counter allowed;
+        private final Counter rejectedByIp;
+        private final Counter rejectedByEmail;
+
+        private Limit(String endpoint, TokenBucketRateLimiter limiter, MeterRegistry meterRegistry) {
+            this.limiter = limiter;
+            this.allowed = counter(meterRegistry, endpoint, "allowed", "none");
+            this.rejectedByIp = counter(meterRegistry, endpoint, "rejected", "ip");
+            this.rejectedByEmail = counter(meterRegistry, endpoint, "rejected", "email");
+            CaffeineCacheMetrics.monitor(meterRegistry, limiter.buckets(), "rate-limit-" + endpoint);
+        }
+
+        // Both keys share one bucket map; the prefixes keep an IP and an email from ever colliding
+        private void check(String clientIp, String email) {
+            reject(limiter.tryAcquire("ip:" + clientIp), rejectedByIp);
+            if (email != null) {
+                reject(limiter.tryAcquire("email:" + email.trim().toLowerCase(Locale.ROOT)), rejectedByEmail);
+            }
+            allowed.increment();
+        }
+
+        private static void reject(Duration retryAfter, Counter rejected) {
+            if (!retryAfter.isZero()) {
+                rejected.increment();
+                throw new TooManyRequestsException("Too many attempts, please retry later", retryAfter);
+            }
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String endpoint, String result, String limitedBy) {
+            return Counter.builder("eaglebank.rate-limit.requests")
+                    .description("Login and registration attempts checked against the rate limits")
+                    .tag("endpoint", endpoint)
+                    .tag("result", result)
+                    .tag("limited.by", limitedBy)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.eaglebank.feature.auth.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One token bucket per key, each held in a single {@link AtomicLong} and updated with compare-and-set, so
+ * callers never block each other. A bucket stores the time at which it will next be full (the generic cell
+ * rate algorithm); taking a token pushes that time one refill period forward, and a request is refused when
+ * doing so would need more than {@code capacity} tokens.
+ * <p>
+ * Buckets live in a size-bounded map and are dropped once idle for long enough to have refilled completely,
+ * at which point a fresh bucket behaves exactly the same.
+ */
+public class TokenBucketRateLimiter {
+    private final long refillNanos;
+    private final long burstNanos;
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(int capacity, Duration refillPeriod, long maxKeys, Ticker ticker) {
+        if (capacity <= 0 || refillPeriod.isNegative() || refillPeriod.isZero() || maxKeys <= 0) {
+            throw new IllegalArgumentException("Rate limit capacity, refill period and key count must be positive");
+        }
+        this.refillNanos = refillPeriod.toNanos();
+        this.burstNanos = refillNanos * capacity;
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return zero when the token was taken, otherwise how long until one will be available
+     */
+    public Duration tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = ticker.read();
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + refillNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return Duration.ofNanos(wait);
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    Cache<String, AtomicLong> buckets() {
+        return buckets;
+    }
+}
@@ -2,16 +2,25 @@ package com.eaglebank.feature.auth.repository;
 
 
 import com.eaglebank.feature.auth.repository.domain.Identity;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Repository
 public class IdentityRepository {
+    private static final String IDENTITY_COLUMNS = "identity_id, email, password, user_id";
+    private static final RowMapper<Identity> IDENTITY_ROW_MAPPER = (rs, rowNum) -> Identity.builder()
+            .identityId(rs.getObject(1, UUID.class))
+            .email(rs.getString(2))
+            .password(rs.getString(3))
+            .userId(rs.getObject(4, UUID.class))
+            .build();
     private final JdbcTemplate jdbcTemplate;
 
     public IdentityRepository(JdbcTemplate jdbcTemplate) {
@@ -20,8 +29,12 @@ public class IdentityRepository {
 
     @Transactional
     public List<Identity> getIdentityByEmail(String email) {
-        String sql = "SELECT * FROM identity WHERE email = ?";
-        return jdbcTemplate.query(sql, new BeanPropertyRowMapper<>(Identity.class), email);
+        String sql = "SELECT " + IDENTITY_COLUMNS + " FROM identity WHERE email = ?";
+        return jdbcTemplate.query(sql, IDENTITY_ROW_MAPPER, email);
+    }
+
+    public void forEachEmail(Consumer<String> consumer) {
+        jdbcTemplate.query("SELECT email FROM identity", (RowCallbackHandler) rs -> consumer.accept(rs.getString(1)));
     }
 
     public void createIdentity(UUID userId, String email, String password) {
@@ -29,6 +42,15 @@ public class IdentityRepository {
                 UUID.randomUUID(), email, password, userId);
     }
 
+    /**
+     * Replaces the password hash only if it is still {@code currentPassword}, so a concurrent password change is
+     * never overwritten. Returns whether the row was updated.
+     */
+    public boolean updatePassword(UUID identityId, String currentPassword, String newPassword) {
+        String sql = "UPDATE identity SET password = ? WHERE identity_id = ? AND password = ?";
+        return jdbcTemplate.update(sql, newPassword, identityId, currentPassword) == 1;
+    }
+
     public void deleteIdentity(UUID userId) {
         String sql = "DELETE FROM identity WHERE user_id = ?";
         jdbcTemplate.update(sql, userId);
@@ -0,0 +1,46 @@
+package com.eaglebank.feature.auth.repository;
+
+import com.eaglebank.feature.auth.repository.domain.RefreshToken;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public class RefreshTokenRepository {
+    private static final RowMapper<RefreshToken> REFRESH_TOKEN_MAPPER = (rs, rowNum) -> RefreshToken.builder()
+            .tokenId(rs.getObject("token_id", UUID.class))
+            .tokenHash(rs.getString("token_hash"))
+            .userId(rs.getObject("user_id", UUID.class))
+            .expiresAt(rs.getTimestamp("expires_at").toInstant())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RefreshTokenRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void createRefreshToken(RefreshToken refreshToken) {
+        jdbcTemplate.update("INSERT INTO refresh_token(token_id, token_hash, user_id, expires_at) VALUES (?, ?, ?, ?)",
+                refreshToken.getTokenId(), refreshToken.getTokenHash(), refreshToken.getUserId(),
+                Timestamp.from(refreshToken.getExpiresAt()));
+    }
+
+    /**
+     * Deletes the token and returns what it was, in one statement. Two requests exchanging the same token cannot
+     * both get it back.
+     */
+    public Optional<RefreshToken> consumeRefreshToken(String tokenHash) {
+        String sql = "SELECT * FROM OLD TABLE (DELETE FROM refresh_token WHERE token_hash = ?)";
+        return jdbcTemplate.query(sql, REFRESH_TOKEN_MAPPER, tokenHash).stream().findFirst();
+    }
+
+    public void deleteExpiredRefreshTokens(UUID userId, Instant now) {
+        jdbcTemplate.update("DELETE FROM refresh_token WHERE user_id = ? AND expires_at <= ?", userId, Timestamp.from(now));
+    }
+}
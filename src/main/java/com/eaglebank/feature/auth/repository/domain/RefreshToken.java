@@ -0,0 +1,20 @@
+package com.eaglebank.feature.auth.repository.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+    private UUID tokenId;
+    private String tokenHash;
+    private UUID userId;
+    private Instant expiresAt;
+}
@@ -0,0 +1,59 @@
+package com.eaglebank.feature.auth.service;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Picks a BCrypt cost for the CPU the service runs on, and reads the cost back out of stored hashes. Each step
+ * of cost doubles the work, so calibration times successive costs and stops at the first one slower than the
+ * target.
+ */
+public final class BCryptCost {
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    private static final int WARM_UP_COST = 4;
+
+    private BCryptCost() {
+    }
+
+    /**
+     * Returns the highest cost between {@code minCost} and {@code maxCost} whose hash takes no longer than
+     * {@code target}, or {@code minCost} when even that is slower.
+     */
+    public static int calibrate(Duration target, int minCost, int maxCost) {
+        if (minCost < WARM_UP_COST || maxCost > 31 || minCost > maxCost) {
+            throw new IllegalArgumentException("BCrypt cost range must lie within 4..31");
+        }
+        // Let the JIT compile the hashing loop before anything is measured
+        for (int i = 0; i < 10; i++) {
+            hashAt(WARM_UP_COST);
+        }
+        int chosen = minCost;
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            if (Math.min(hashAt(cost), hashAt(cost)) > target.toNanos()) {
+                break;
+            }
+            chosen = cost;
+        }
+        return chosen;
+    }
+
+    /**
+     * Returns the cost a BCrypt hash was made with, or {@code -1} when the value is not a BCrypt hash.
+     */
+    public static int of(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_HASH.matcher(encodedPassword);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    private static long hashAt(int cost) {
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", BCrypt.gensalt(cost));
+        return System.nanoTime() - start;
+    }
+}
@@ -1,48 +1,123 @@
 package com.eaglebank.feature.auth.service;
 
-import com.eaglebank.feature.auth.JwtProvider;
 import com.eaglebank.feature.auth.repository.IdentityRepository;
 import com.eaglebank.feature.auth.repository.domain.Identity;
 import com.eaglebank.feature.auth.web.model.LoginRequest;
-import com.eaglebank.feature.common.exception.IdentityException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.eaglebank.feature.auth.web.model.TokenResponse;
+import com.eaglebank.feature.common.exception.AuthenticationFailedException;
+import com.eaglebank.feature.common.exception.ServiceBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
+@Slf4j
 @Service
 public class IdentityService {
     private final IdentityRepository identityRepository;
-    private final JwtProvider jwtProvider;
-    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final TokenService tokenService;
+    private final PasswordHasher passwordHasher;
+    private final RegisteredEmails registeredEmails;
+    // Database work that follows a hash runs here, so a slow database never holds threads of the hashing pool
+    private final Executor databaseExecutor;
 
     public IdentityService(IdentityRepository identityRepository,
-                           JwtProvider jwtProvider,
-                           BCryptPasswordEncoder bCryptPasswordEncoder) {
+                           TokenService tokenService,
+                           PasswordHasher passwordHasher,
+                           RegisteredEmails registeredEmails,
+                           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor databaseExecutor) {
         this.identityRepository = identityRepository;
-        this.jwtProvider = jwtProvider;
-        this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.tokenService = tokenService;
+        this.passwordHasher = passwordHasher;
+        this.registeredEmails = registeredEmails;
+        this.databaseExecutor = databaseExecutor;
     }
 
+    /**
+     * Hashes a new password on the hashing pool and waits for it. Call it before opening a transaction, so no
+     * connection is held while the password queues for the pool.
+     */
+    public String encodePassword(String rawPassword) {
+        try {
+            return passwordHasher.encode(rawPassword).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stores an identity whose password was already encoded with {@link #encodePassword}.
+     */
     public void createIdentity(UUID userId, Identity identity) {
-        identityRepository.createIdentity(userId, identity.getEmail(), bCryptPasswordEncoder.encode(identity.getPassword()));
+        // Added before the insert so a login racing the commit is never turned away by the filter
+        registeredEmails.add(identity.getEmail());
+        identityRepository.createIdentity(userId, identity.getEmail(), identity.getPassword());
     }
 
-    public String login(final LoginRequest loginRequest) {
+    /**
+     * Looks the identity up on the calling thread, checks the password on the hashing pool and issues the tokens
+     * on the application task executor. The returned
+     * future completes with a token pair, or with {@link AuthenticationFailedException} when the credentials do not match.
+     * Emails the {@link RegisteredEmails} filter rules out skip the query; unknown emails still pay for one
+     * password check so they take as long to reject as a wrong password.
+     */
+    public CompletableFuture<TokenResponse> login(final LoginRequest loginRequest) {
+        if (!registeredEmails.mightContain(loginRequest.getEmail())) {
+            return rejectUnknownEmail(loginRequest);
+        }
         List<Identity> identities = identityRepository.getIdentityByEmail(loginRequest.getEmail());
         if (identities.isEmpty()) {
-            throw new IdentityException("Invalid email or password");
+            return rejectUnknownEmail(loginRequest);
         }
 
         Identity identity = identities.getFirst();
-        if (!bCryptPasswordEncoder.matches(loginRequest.getPassword(), identity.getPassword())) {
-            throw new IdentityException("Invalid email or password");
+        return passwordHasher.matches(loginRequest.getPassword(), identity.getPassword())
+                .thenApplyAsync(matched -> {
+                    if (!matched) {
+                        throw new AuthenticationFailedException("Invalid email or password");
+                    }
+                    if (passwordHasher.needsRehash(identity.getPassword())) {
+                        rehash(identity, loginRequest.getPassword());
+                    }
+                    return tokenService.issueTokens(identity.getUserId());
+                }, databaseExecutor);
+    }
+
+    /**
+     * Re-encodes the password at the current cost in the background; the login does not wait for it. If the pool
+     * is busy or the update fails the old hash stays, and the next login tries again.
+     */
+    private void rehash(Identity identity, String rawPassword) {
+        try {
+            passwordHasher.encode(rawPassword)
+                    .thenAcceptAsync(rehashed -> identityRepository.updatePassword(identity.getIdentityId(),
+                            identity.getPassword(), rehashed), databaseExecutor)
+                    .exceptionally(e -> {
+                        log.warn("Failed to rehash the password of identity {}", identity.getIdentityId(), e);
+                        return null;
+                    });
+        } catch (ServiceBusyException e) {
+            log.debug("Hashing pool busy, rehash of identity {} deferred", identity.getIdentityId());
         }
+    }
 
-        return jwtProvider.generateToken(identity.getUserId());
+    private CompletableFuture<TokenResponse> rejectUnknownEmail(LoginRequest loginRequest) {
+        return passwordHasher.matchesNothing(loginRequest.getPassword())
+                .thenApply(matched -> {
+                    throw new AuthenticationFailedException("Invalid email or password");
+                });
     }
 
+    // The email stays in the registered email filter until its next rebuild
     public void deleteIdentity(UUID userId) {
         identityRepository.deleteIdentity(userId);
     }
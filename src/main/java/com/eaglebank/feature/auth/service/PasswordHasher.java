@@ -0,0 +1,118 @@
+package com.eaglebank.feature.auth.service;
+
+import com.eaglebank.feature.common.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on a dedicated pool sized to the CPU count, so hashing never occupies request threads. The queue
+ * in front of the pool is bounded; once it is full new work is refused with {@link ServiceBusyException} rather
+ * than queued, which keeps a burst of logins from starving the rest of the service.
+ */
+@Component
+public class PasswordHasher {
+    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final Timer encodeLatency;
+    private final Timer matchesLatency;
+    private final Counter rejections;
+    private final String unmatchableHash;
+    private final int cost;
+
+    public PasswordHasher(BCryptPasswordEncoder bCryptPasswordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${eaglebank.auth.password-hashing.threads:0}") int threads,
+                          @Value("${eaglebank.auth.password-hashing.queue-capacity:64}") int queueCapacity,
+                          @Value("${eaglebank.auth.password-hashing.retry-after:1s}") Duration retryAfter) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Password hashing queue capacity must be positive");
+        }
+        this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.retryAfter = retryAfter;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hasher-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        // Publishes pool size, active threads and queue depth
+        new ExecutorServiceMetrics(executor, "password-hasher", Tags.empty()).bindTo(meterRegistry);
+        this.encodeLatency = hashTimer(meterRegistry, "encode");
+        this.matchesLatency = hashTimer(meterRegistry, "matches");
+        this.rejections = Counter.builder("eaglebank.auth.password.rejected")
+                .description("Password hashing requests refused because the queue was full")
+                .register(meterRegistry);
+        // Hash of a random secret nobody knows, checked when there is no real hash so the work still takes place
+        this.unmatchableHash = bCryptPasswordEncoder.encode(UUID.randomUUID().toString());
+        // The encoder does not expose its strength; the hash it just made carries it
+        this.cost = BCryptCost.of(unmatchableHash);
+    }
+
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(encodeLatency, () -> bCryptPasswordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesLatency, () -> bCryptPasswordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Spends the same time as {@link #matches} but always completes with {@code false}. Used for unknown emails,
+     * so the response time does not reveal whether an account exists.
+     */
+    public CompletableFuture<Boolean> matchesNothing(CharSequence rawPassword) {
+        return submit(matchesLatency, () -> {
+            bCryptPasswordEncoder.matches(rawPassword, unmatchableHash);
+            return false;
+        });
+    }
+
+    /**
+     * Whether a stored hash was made with a lower cost than new hashes get, and should be replaced the next time
+     * the password is known. A higher cost is left alone: each node calibrates its own cost, and nodes that
+     * settled on different costs must not rehash the same password back and forth or weaken it.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        int storedCost = BCryptCost.of(encodedPassword);
+        return cost > 0 && storedCost > 0 && storedCost < cost;
+    }
+
+    private <T> CompletableFuture<T> submit(Timer latency, Supplier<T> hashing) {
+        try {
+            return CompletableFuture.supplyAsync(() -> latency.record(hashing), executor);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new ServiceBusyException("Too many authentication requests, please retry shortly", retryAfter);
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("eaglebank.auth.password.hash")
+                .description("Time spent hashing or checking one password")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,127 @@
+package com.eaglebank.feature.auth.service;
+
+import com.eaglebank.feature.auth.repository.IdentityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bloom filter of every email with an identity, so logins for emails that were never registered are turned
+ * away without a database query. The filter is loaded at startup and extended as identities are created.
+ * Deleted identities cannot be removed from a Bloom filter; they linger as false positives until the filter is
+ * rebuilt from the {@code identity} table, which happens on a fixed delay.
+ * <p>
+ * Emails added since the previous rebuild started are carried into the next filter as well, so an identity whose
+ * transaction had not committed when the table was read is never dropped. Until the first load completes every
+ * email is reported as possibly present.
+ */
+@Slf4j
+@Component
+public class RegisteredEmails {
+    private final IdentityRepository identityRepository;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+    private final Duration rebuildInterval;
+    private final ScheduledExecutorService rebuilder;
+    private final Counter absentLookups;
+    private final Counter presentLookups;
+    private final Timer rebuildLatency;
+    private final Object lock = new Object();
+    private volatile BloomFilter filter;
+    private Set<String> addedSinceRebuild = new HashSet<>();
+
+    public RegisteredEmails(IdentityRepository identityRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${eaglebank.auth.email-filter.expected-emails:1000000}") long expectedEmails,
+                            @Value("${eaglebank.auth.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${eaglebank.auth.email-filter.rebuild-interval:1h}") Duration rebuildInterval) {
+        this.identityRepository = identityRepository;
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildInterval = rebuildInterval;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("email-filter-");
+        threadFactory.setDaemon(true);
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.absentLookups = lookupCounter(meterRegistry, "absent");
+        this.presentLookups = lookupCounter(meterRegistry, "maybe-present");
+        this.rebuildLatency = Timer.builder("eaglebank.auth.email-filter.rebuild")
+                .description("Time to reload the registered email filter from the identity table")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        rebuild();
+        long intervalMillis = rebuildInterval.toMillis();
+        rebuilder.scheduleWithFixedDelay(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                // Keep serving the current filter; the next run tries again
+                log.warn("Failed to rebuild the registered email filter", e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Returns {@code false} only when no identity has this email; {@code true} means the database has to be asked.
+     */
+    public boolean mightContain(String email) {
+        BloomFilter current = filter;
+        boolean maybePresent = current == null || current.mightContain(email);
+        (maybePresent ? presentLookups : absentLookups).increment();
+        return maybePresent;
+    }
+
+    public void add(String email) {
+        synchronized (lock) {
+            addedSinceRebuild.add(email);
+            BloomFilter current = filter;
+            if (current != null) {
+                current.put(email);
+            }
+        }
+    }
+
+    void rebuild() {
+        rebuildLatency.record(() -> {
+            Set<String> carried;
+            synchronized (lock) {
+                carried = addedSinceRebuild;
+                addedSinceRebuild = new HashSet<>();
+            }
+            BloomFilter rebuilt = new BloomFilter(expectedEmails, falsePositiveRate);
+            identityRepository.forEachEmail(rebuilt::put);
+            synchronized (lock) {
+                carried.forEach(rebuilt::put);
+                addedSinceRebuild.forEach(rebuilt::put);
+                filter = rebuilt;
+            }
+        });
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("eaglebank.auth.email-filter.lookups")
+                .description("Login email lookups checked against the registered email filter")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
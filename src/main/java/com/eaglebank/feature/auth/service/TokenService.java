@@ -0,0 +1,99 @@
+package com.eaglebank.feature.auth.service;
+
+import com.eaglebank.feature.auth.JwtProvider;
+import com.eaglebank.feature.auth.repository.RefreshTokenRepository;
+import com.eaglebank.feature.auth.repository.domain.RefreshToken;
+import com.eaglebank.feature.auth.web.model.TokenResponse;
+import com.eaglebank.feature.common.exception.AuthenticationFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues access and refresh token pairs. Access tokens are verified without touching the database; refresh
+ * tokens are random values stored only as a SHA-256 hash and are single use, each exchange returning a new pair.
+ */
+@Service
+public class TokenService {
+    private final JwtProvider jwtProvider;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration refreshTokenTtl;
+    private final TransactionTemplate transactionTemplate;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public TokenService(JwtProvider jwtProvider,
+                        RefreshTokenRepository refreshTokenRepository,
+                        @Value("${eaglebank.auth.refresh-token-ttl:14d}") Duration refreshTokenTtl,
+                        TransactionTemplate transactionTemplate) {
+        this.jwtProvider = jwtProvider;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenTtl = refreshTokenTtl;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public TokenResponse issueTokens(UUID userId) {
+        Instant now = Instant.now();
+        refreshTokenRepository.deleteExpiredRefreshTokens(userId, now);
+
+        byte[] secret = new byte[32];
+        secureRandom.nextBytes(secret);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        refreshTokenRepository.createRefreshToken(RefreshToken.builder()
+                .tokenId(UUID.randomUUID())
+                .tokenHash(sha256(refreshToken))
+                .userId(userId)
+                .expiresAt(now.plus(refreshTokenTtl))
+                .build());
+
+        return TokenResponse.builder()
+                .token(jwtProvider.generateToken(userId))
+                .refreshToken(refreshToken)
+                .expiresIn(jwtProvider.getAccessTokenTtl().toSeconds())
+                .build();
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair. The old token is consumed in the same transaction that stores
+     * the new one, so a failure while issuing rolls the delete back and the client keeps a usable token.
+     */
+    public TokenResponse refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new IllegalArgumentException("Refresh token is required");
+        }
+        return transactionTemplate.execute(status -> {
+            RefreshToken stored = refreshTokenRepository.consumeRefreshToken(sha256(refreshToken))
+                    .filter(token -> token.getExpiresAt().isAfter(Instant.now()))
+                    .orElseThrow(() -> new AuthenticationFailedException("Invalid or expired refresh token"));
+            return issueTokens(stored.getUserId());
+        });
+    }
+
+    /**
+     * Revokes the access token for the rest of its lifetime and, when given, deletes the refresh token.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        jwtProvider.revoke(accessToken);
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenRepository.consumeRefreshToken(sha256(refreshToken));
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,38 +1,79 @@
 package com.eaglebank.feature.auth.web;
 
+import com.eaglebank.feature.auth.filter.JwtFilter;
+import com.eaglebank.feature.auth.ratelimit.AuthRateLimits;
 import com.eaglebank.feature.auth.service.IdentityService;
+import com.eaglebank.feature.auth.service.TokenService;
 import com.eaglebank.feature.auth.web.model.LoginRequest;
+import com.eaglebank.feature.auth.web.model.RefreshTokenRequest;
+import com.eaglebank.feature.auth.web.model.TokenResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/v1/auth")
 @Tag(name = "Auth", description = "Apis related to authentication")
 public class AuthController {
     private final IdentityService identityService;
+    private final TokenService tokenService;
+    private final AuthRateLimits authRateLimits;
 
-    public AuthController(IdentityService identityService) {
+    public AuthController(IdentityService identityService, TokenService tokenService, AuthRateLimits authRateLimits) {
         this.identityService = identityService;
+        this.tokenService = tokenService;
+        this.authRateLimits = authRateLimits;
     }
 
     @PostMapping("/login")
     @Operation(summary = "Authenticate the user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "401", description = "Invalid email or password"),
+            @ApiResponse(responseCode = "429", description = "Too many attempts, retry after the Retry-After delay"),
+            @ApiResponse(responseCode = "503", description = "Too many logins in progress, retry after the Retry-After delay"),
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
-        String token = identityService.login(loginRequest);
-        return ResponseEntity.ok(Map.of("token", token));
+    public CompletableFuture<ResponseEntity<TokenResponse>> login(@RequestBody LoginRequest loginRequest,
+                                                                 HttpServletRequest request) {
+        authRateLimits.checkLogin(request.getRemoteAddr(), loginRequest.getEmail());
+        // The request thread is released while the password is checked on the hashing pool
+        return identityService.login(loginRequest).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Exchange a refresh token for a new access and refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Refresh token missing"),
+            @ApiResponse(responseCode = "401", description = "Refresh token unknown, already used or expired"),
+            @ApiResponse(responseCode = "500", description = "Unexpected error")
+    })
+    public ResponseEntity<TokenResponse> refresh(@RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return ResponseEntity.ok(tokenService.refresh(refreshTokenRequest.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke the current access token and the given refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Logged out"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "500", description = "Unexpected error")
+    })
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenRequest refreshTokenRequest,
+                                       HttpServletRequest request) {
+        tokenService.logout(JwtFilter.bearerToken(request),
+                refreshTokenRequest != null ? refreshTokenRequest.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
     }
 }
 
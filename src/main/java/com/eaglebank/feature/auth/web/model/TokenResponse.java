@@ -0,0 +1,17 @@
+package com.eaglebank.feature.auth.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenResponse {
+    private String token;
+    private String refreshToken;
+    // Seconds until the access token expires
+    private long expiresIn;
+}
@@ -0,0 +1,7 @@
+package com.eaglebank.feature.common.exception;
+
+public class AuthenticationFailedException extends RuntimeException {
+    public AuthenticationFailedException(String message) {
+        super(message);
+    }
+}
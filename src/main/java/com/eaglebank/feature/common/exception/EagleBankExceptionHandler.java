@@ -38,6 +38,12 @@ class EagleBankExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(BAD_REQUEST).body(badRequestErrorResponse);
     }
 
+    @ExceptionHandler(AuthenticationFailedException.class)
+    public ResponseEntity<?> handleAuthenticationFailed(AuthenticationFailedException ex) {
+        ErrorResponse errorResponse = ErrorResponse.builder().message(ex.getMessage()).build();
+        return ResponseEntity.status(UNAUTHORIZED).body(errorResponse);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<?> handleAccessDenied(AccessDeniedException ex) {
         ErrorResponse errorResponse = ErrorResponse.builder().message("Operation is not allowed for the user").build();
@@ -50,6 +56,28 @@ class EagleBankExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(UNPROCESSABLE_ENTITY).body(errorResponse);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<?> handleConflict(ConflictException ex) {
+        ErrorResponse errorResponse = ErrorResponse.builder().message(ex.getMessage()).build();
+        return ResponseEntity.status(CONFLICT).body(errorResponse);
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<?> handleServiceBusy(ServiceBusyException ex) {
+        ErrorResponse errorResponse = ErrorResponse.builder().message(ex.getMessage()).build();
+        return ResponseEntity.status(SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<?> handleTooManyRequests(TooManyRequestsException ex) {
+        ErrorResponse errorResponse = ErrorResponse.builder().message(ex.getMessage()).build();
+        return ResponseEntity.status(TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGeneric(Exception ex, WebRequest request) {
         log.error(ex.getMessage(), ex);
@@ -0,0 +1,38 @@
+package com.eaglebank.feature.common.money;
+
+import java.math.BigDecimal;
+
+/**
+ * Money is held as a {@code long} count of minor units (pence) everywhere below the web models, and only
+ * becomes a {@link BigDecimal} when it crosses the JSON boundary. Accounts are only opened in GBP, so a
+ * single scale of two decimal places applies.
+ */
+public final class MinorUnits {
+    public static final int SCALE = 2;
+    // Largest amount a single request may move; far enough below Long.MAX_VALUE pence that request amounts alone
+    // cannot overflow, while balances are still checked with exact arithmetic
+    public static final String MAX_AMOUNT = "1000000000.00";
+
+    private MinorUnits() {
+    }
+
+    /**
+     * Converts a decimal amount to minor units. Amounts with more decimal places than the currency allows are
+     * rejected rather than rounded, as are amounts too large to count in a {@code long}.
+     */
+    public static long of(BigDecimal amount) {
+        BigDecimal minorUnits = amount.movePointRight(SCALE);
+        if (minorUnits.stripTrailingZeros().scale() > 0) {
+            throw new IllegalArgumentException("Amount must have at most " + SCALE + " decimal places");
+        }
+        try {
+            return minorUnits.longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount is too large");
+        }
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
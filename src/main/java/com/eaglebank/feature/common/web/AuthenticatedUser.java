@@ -0,0 +1,17 @@
+package com.eaglebank.feature.common.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a controller parameter of type {@link java.util.UUID} to the id of the user whose token was verified
+ * by {@link com.eaglebank.feature.auth.filter.JwtFilter} for the current request.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AuthenticatedUser {
+}
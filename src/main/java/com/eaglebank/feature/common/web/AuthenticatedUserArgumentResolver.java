@@ -0,0 +1,34 @@
+package com.eaglebank.feature.common.web;
+
+import com.eaglebank.feature.auth.filter.JwtFilter;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.UUID;
+
+/**
+ * Supplies {@link AuthenticatedUser} parameters from the user id the filter stored on the request, so
+ * controllers never see the token itself.
+ */
+class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(AuthenticatedUser.class)
+                && UUID.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object userId = webRequest.getAttribute(JwtFilter.AUTHENTICATED_USER_ID, RequestAttributes.SCOPE_REQUEST);
+        if (userId == null) {
+            throw new IllegalStateException("No authenticated user on request to " + parameter.getExecutable().getName());
+        }
+        return userId;
+    }
+}
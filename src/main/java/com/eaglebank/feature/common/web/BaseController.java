@@ -1,32 +1,39 @@
 package com.eaglebank.feature.common.web;
 
 
-import com.eaglebank.feature.auth.JwtProvider;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.nio.file.AccessDeniedException;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
 public class BaseController {
-    private final JwtProvider jwtProvider;
-
-    public BaseController(JwtProvider jwtProvider) {
-        this.jwtProvider = jwtProvider;
-    }
-
-    protected void validateUserId(UUID userId, String authHeader) throws AccessDeniedException {
-        String token = authHeader.replace("Bearer ", "");
-        UUID authenticatedUserId = jwtProvider.getUserId(token);
 
+    protected void validateUserId(UUID userId, UUID authenticatedUserId) throws AccessDeniedException {
         if (!userId.equals(authenticatedUserId)) {
             log.error("Not authorised to access user data for {}", authenticatedUserId);
             throw new AccessDeniedException("You are not authorized to access this user's data.");
         }
     }
 
-    protected UUID getAuthenticatedUserId(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        return jwtProvider.getUserId(token);
+    /**
+     * Answers a conditional GET from the resource's entity tag alone. Returns {@code true} when the client's copy
+     * is current; the response is then already a 304 and the handler returns {@code null} without loading
+     * anything. Otherwise the tag is set on the full response that follows. An empty version means the
+     * caller cannot see the resource, and the handler goes on to fail the usual way.
+     * <p>
+     * Responses are marked private and must be revalidated on every use, so only the caller keeps a copy.
+     */
+    protected boolean notModified(ServletWebRequest request, Optional<ResourceVersion> version) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return version.isPresent()
+                && request.checkNotModified(version.get().etag());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.eaglebank.feature.common.web;
+
+/**
+ * Validator for a conditional GET: an entity tag that changes whenever the representation would, read with a query
+ * far cheaper than building the response it stands for. No last-modified time is offered: HTTP dates only carry
+ * whole seconds, so a change in the same second as the client's copy would be answered with a 304.
+ */
+public record ResourceVersion(String etag) {
+
+    public static ResourceVersion of(String etag) {
+        return new ResourceVersion(etag);
+    }
+}
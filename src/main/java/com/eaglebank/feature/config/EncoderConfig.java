@@ -1,13 +1,28 @@
 package com.eaglebank.feature.config;
 
+import com.eaglebank.feature.auth.service.BCryptCost;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.Duration;
+
+@Slf4j
 @Configuration
 public class EncoderConfig {
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder bCryptPasswordEncoder(
+            @Value("${eaglebank.auth.password-hashing.cost:0}") int cost,
+            @Value("${eaglebank.auth.password-hashing.target-latency:250ms}") Duration targetLatency,
+            @Value("${eaglebank.auth.password-hashing.min-cost:10}") int minCost,
+            @Value("${eaglebank.auth.password-hashing.max-cost:14}") int maxCost) {
+        if (cost > 0) {
+            return new BCryptPasswordEncoder(cost);
+        }
+        int calibrated = BCryptCost.calibrate(targetLatency, minCost, maxCost);
+        log.info("Calibrated BCrypt cost {} for a target of {} ms per hash", calibrated, targetLatency.toMillis());
+        return new BCryptPasswordEncoder(calibrated);
     }
 }
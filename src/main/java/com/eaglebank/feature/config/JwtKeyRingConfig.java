@@ -0,0 +1,31 @@
+package com.eaglebank.feature.config;
+
+import com.eaglebank.feature.auth.JwtKeyRing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+
+@Slf4j
+@Configuration
+public class JwtKeyRingConfig {
+    @Bean
+    public JwtKeyRing jwtKeyRing(@Value("${eaglebank.auth.jwt.keystore.location:}") Resource keystore,
+                                 @Value("${eaglebank.auth.jwt.keystore.type:PKCS12}") String type,
+                                 @Value("${eaglebank.auth.jwt.keystore.password:}") String password,
+                                 @Value("${eaglebank.auth.jwt.active-key-id:}") String activeKeyId)
+            throws IOException, GeneralSecurityException {
+        if (keystore == null) {
+            log.warn("No JWT keystore configured, signing with a key local to this instance");
+            return JwtKeyRing.ephemeral();
+        }
+        try (InputStream in = keystore.getInputStream()) {
+            return JwtKeyRing.load(in, type, password.toCharArray(), activeKeyId);
+        }
+    }
+}
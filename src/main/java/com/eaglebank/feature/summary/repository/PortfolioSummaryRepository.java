@@ -0,0 +1,86 @@
+package com.eaglebank.feature.summary.repository;
+
+import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.eaglebank.feature.account.web.model.AccountType;
+import com.eaglebank.feature.summary.repository.domain.AccountHistory;
+import com.eaglebank.feature.summary.repository.domain.PortfolioSummary;
+import com.eaglebank.feature.transaction.domain.Transaction;
+import com.eaglebank.feature.transaction.web.model.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Repository
+public class PortfolioSummaryRepository {
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    // One row per account and recent transaction, or one row with null transaction columns for an account without
+    // history. The per-currency total is a window over the accounts before the join, so it is not repeated per
+    // transaction. An account's ledger rows are numbered 1..last_sequence_number, so its latest rows are a range
+    // on the (account_id, sequence_number) index rather than a ranking over the whole history.
+    private static final String SUMMARY_SQL = "SELECT a.account_id, a.name, a.account_type, a.account_number, " +
+            "a.sort_code, a.balance, a.currency, a.currency_total, " +
+            "t.transaction_id, t.amount, t.type, t.timestamp, t.balance_after, t.sequence_number " +
+            "FROM (SELECT account_id, name, account_type, account_number, sort_code, balance, currency, " +
+            "last_sequence_number, created_timestamp, SUM(balance) OVER (PARTITION BY currency) AS currency_total " +
+            "FROM bank_account WHERE user_id = ?) a " +
+            "LEFT JOIN transaction t ON t.account_id = a.account_id AND t.sequence_number > a.last_sequence_number - ? " +
+            "ORDER BY a.created_timestamp, a.account_id, t.sequence_number DESC";
+    private final JdbcTemplate jdbcTemplate;
+
+    public PortfolioSummaryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reads every account of the user with up to {@code transactionsPerAccount} of its latest ledger rows, and the
+     * total balance per currency, in a single query.
+     */
+    public PortfolioSummary getPortfolioSummary(UUID userId, int transactionsPerAccount) {
+        return jdbcTemplate.query(SUMMARY_SQL, summaryExtractor(), userId, transactionsPerAccount);
+    }
+
+    private static ResultSetExtractor<PortfolioSummary> summaryExtractor() {
+        return rs -> {
+            Map<String, Long> totals = new LinkedHashMap<>();
+            List<AccountHistory> accounts = new ArrayList<>();
+            AccountHistory current = null;
+            while (rs.next()) {
+                UUID accountId = rs.getObject(1, UUID.class);
+                if (current == null || !current.account().getAccountId().equals(accountId)) {
+                    String accountType = rs.getString(3);
+                    current = new AccountHistory(BankAccount.builder()
+                            .accountId(accountId)
+                            .name(rs.getString(2))
+                            .accountType(accountType != null ? AccountType.valueOf(accountType) : null)
+                            .accountNumber(rs.getString(4))
+                            .sortCode(rs.getString(5))
+                            .balance(rs.getLong(6))
+                            .currency(rs.getString(7))
+                            .build(), new ArrayList<>());
+                    accounts.add(current);
+                    totals.putIfAbsent(rs.getString(7), rs.getLong(8));
+                }
+                UUID transactionId = rs.getObject(9, UUID.class);
+                if (transactionId != null) {
+                    current.latestTransactions().add(Transaction.builder()
+                            .transactionId(transactionId)
+                            .accountId(accountId)
+                            .amount(rs.getLong(10))
+                            .type(TransactionType.valueOf(rs.getString(11)))
+                            .timestamp(rs.getTimestamp(12).toInstant().atZone(UTC))
+                            .balanceAfter(rs.getLong(13))
+                            .sequenceNumber(rs.getLong(14))
+                            .build());
+                }
+            }
+            return new PortfolioSummary(totals, accounts);
+        };
+    }
+}
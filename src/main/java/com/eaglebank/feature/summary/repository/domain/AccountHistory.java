@@ -0,0 +1,12 @@
+package com.eaglebank.feature.summary.repository.domain;
+
+import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.eaglebank.feature.transaction.domain.Transaction;
+
+import java.util.List;
+
+/**
+ * An account with its most recent ledger rows, newest first.
+ */
+public record AccountHistory(BankAccount account, List<Transaction> latestTransactions) {
+}
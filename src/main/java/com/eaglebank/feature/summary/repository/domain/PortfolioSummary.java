@@ -0,0 +1,10 @@
+package com.eaglebank.feature.summary.repository.domain;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A user's accounts with their latest ledger rows, and the total balance per currency in minor units.
+ */
+public record PortfolioSummary(Map<String, Long> totalsByCurrency, List<AccountHistory> accounts) {
+}
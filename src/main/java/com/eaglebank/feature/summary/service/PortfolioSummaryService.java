@@ -0,0 +1,83 @@
+package com.eaglebank.feature.summary.service;
+
+import com.eaglebank.feature.account.repository.BankAccountRepository;
+import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.eaglebank.feature.common.money.MinorUnits;
+import com.eaglebank.feature.common.web.ResourceVersion;
+import com.eaglebank.feature.summary.repository.PortfolioSummaryRepository;
+import com.eaglebank.feature.summary.repository.domain.AccountHistory;
+import com.eaglebank.feature.summary.repository.domain.PortfolioSummary;
+import com.eaglebank.feature.summary.web.model.AccountSummary;
+import com.eaglebank.feature.summary.web.model.CurrencyTotal;
+import com.eaglebank.feature.summary.web.model.PortfolioSummaryResponse;
+import com.eaglebank.feature.transaction.domain.Transaction;
+import com.eaglebank.feature.transaction.web.model.TransactionResponse;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class PortfolioSummaryService {
+    private final PortfolioSummaryRepository portfolioSummaryRepository;
+    private final BankAccountRepository bankAccountRepository;
+
+    public PortfolioSummaryService(PortfolioSummaryRepository portfolioSummaryRepository,
+                                   BankAccountRepository bankAccountRepository) {
+        this.portfolioSummaryRepository = portfolioSummaryRepository;
+        this.bankAccountRepository = bankAccountRepository;
+    }
+
+    /**
+     * Balances and recent history of every account of the user, read in one query instead of a list call followed
+     * by one history call per account.
+     */
+    public PortfolioSummaryResponse getSummary(UUID userId, int transactionsPerAccount) {
+        PortfolioSummary summary = portfolioSummaryRepository.getPortfolioSummary(userId, transactionsPerAccount);
+        return PortfolioSummaryResponse.builder()
+                .totals(summary.totalsByCurrency().entrySet().stream()
+                        .map(total -> CurrencyTotal.builder()
+                                .currency(total.getKey())
+                                .balance(MinorUnits.toDecimal(total.getValue()))
+                                .build())
+                        .toList())
+                .accounts(summary.accounts().stream()
+                        .map(PortfolioSummaryService::accountSummary)
+                        .toList())
+                .build();
+    }
+
+    /**
+     * Every posting bumps its account's version, so the validator of the account list covers the summary too.
+     */
+    public Optional<ResourceVersion> getSummaryVersion(UUID userId) {
+        return Optional.of(bankAccountRepository.getAccountsVersion(userId));
+    }
+
+    private static AccountSummary accountSummary(AccountHistory history) {
+        BankAccount account = history.account();
+        return AccountSummary.builder()
+                .accountId(account.getAccountId())
+                .name(account.getName())
+                .accountType(account.getAccountType())
+                .accountNumber(account.getAccountNumber())
+                .sortCode(account.getSortCode())
+                .balance(MinorUnits.toDecimal(account.getBalance()))
+                .currency(account.getCurrency())
+                .latestTransactions(history.latestTransactions().stream()
+                        .map(PortfolioSummaryService::transactionResponse)
+                        .toList())
+                .build();
+    }
+
+    private static TransactionResponse transactionResponse(Transaction transaction) {
+        return TransactionResponse.builder()
+                .transactionId(transaction.getTransactionId())
+                .amount(MinorUnits.toDecimal(transaction.getAmount()))
+                .type(transaction.getType())
+                .timestamp(transaction.getTimestamp())
+                .balanceAfter(MinorUnits.toDecimal(transaction.getBalanceAfter()))
+                .sequenceNumber(transaction.getSequenceNumber())
+                .build();
+    }
+}
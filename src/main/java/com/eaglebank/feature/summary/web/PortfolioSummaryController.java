@@ -0,0 +1,66 @@
+package com.eaglebank.feature.summary.web;
+
+import com.eaglebank.feature.common.web.AuthenticatedUser;
+import com.eaglebank.feature.common.web.BaseController;
+import com.eaglebank.feature.summary.service.PortfolioSummaryService;
+import com.eaglebank.feature.summary.web.model.PortfolioSummaryResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.file.AccessDeniedException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/v1/users/{userId}/summary")
+@Tag(name = "Users", description = "Apis related to users")
+@SecurityRequirement(name = "bearerAuth")
+public class PortfolioSummaryController extends BaseController {
+    private final PortfolioSummaryService portfolioSummaryService;
+
+    public PortfolioSummaryController(PortfolioSummaryService portfolioSummaryService) {
+        this.portfolioSummaryService = portfolioSummaryService;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Fetch a summary of the user's accounts",
+            description = "Returns the total balance per currency and, for each account, its balance and latest " +
+                    "transactions, newest first. Send the returned ETag as If-None-Match to get a 304 while " +
+                    "nothing has changed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Portfolio summary",
+                    content = @Content(schema = @Schema(implementation = PortfolioSummaryResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Summary unchanged since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid number of transactions"),
+            @ApiResponse(responseCode = "401", description = "Access token is missing or invalid"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "500", description = "Unexpected error")
+    })
+    public PortfolioSummaryResponse getSummary(
+            @PathVariable UUID userId,
+            @Parameter(description = "Latest transactions to include per account")
+            @RequestParam(defaultValue = "5") @Min(0) @Max(50) int transactions,
+            @AuthenticatedUser UUID authenticatedUserId,
+            ServletWebRequest request) throws AccessDeniedException {
+        validateUserId(userId, authenticatedUserId);
+        if (notModified(request, portfolioSummaryService.getSummaryVersion(userId))) {
+            return null;
+        }
+        return portfolioSummaryService.getSummary(userId, transactions);
+    }
+}
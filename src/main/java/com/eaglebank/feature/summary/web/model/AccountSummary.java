@@ -0,0 +1,26 @@
+package com.eaglebank.feature.summary.web.model;
+
+import com.eaglebank.feature.account.web.model.AccountType;
+import com.eaglebank.feature.transaction.web.model.TransactionResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@Schema
+public class AccountSummary {
+    private UUID accountId;
+    private String name;
+    private AccountType accountType;
+    private String accountNumber;
+    private String sortCode;
+    private BigDecimal balance;
+    private String currency;
+    @Schema(description = "Most recent transactions, newest first")
+    private List<TransactionResponse> latestTransactions;
+}
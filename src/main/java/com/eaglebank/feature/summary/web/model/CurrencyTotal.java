@@ -0,0 +1,16 @@
+package com.eaglebank.feature.summary.web.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@Schema
+public class CurrencyTotal {
+    private String currency;
+    @Schema(description = "Sum of the balances of every account in this currency")
+    private BigDecimal balance;
+}
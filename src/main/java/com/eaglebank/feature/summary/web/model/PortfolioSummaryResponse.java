@@ -0,0 +1,15 @@
+package com.eaglebank.feature.summary.web.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema
+public class PortfolioSummaryResponse {
+    private List<CurrencyTotal> totals;
+    private List<AccountSummary> accounts;
+}
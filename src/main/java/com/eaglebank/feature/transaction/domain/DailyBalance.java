@@ -0,0 +1,26 @@
+package com.eaglebank.feature.transaction.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyBalance {
+    private UUID accountId;
+    private LocalDate balanceDate;
+    // Deposits and withdrawals posted that day, in minor units
+    private long credits;
+    private long debits;
+    private int postings;
+    // Balance after the day's last posting, in minor units
+    private long closingBalance;
+    // Sequence number of the day's last posting
+    private long lastSequenceNumber;
+}
@@ -0,0 +1,38 @@
+package com.eaglebank.feature.transaction.domain;
+
+import com.eaglebank.feature.transaction.web.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Outcome of a transaction post made under an Idempotency-Key, along with the request it answered so a reused
+ * key can be told apart from a retry.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    private UUID userId;
+    private String idempotencyKey;
+    private UUID accountId;
+    private TransactionType type;
+    // Minor units (pence)
+    private long amount;
+    private UUID transactionId;
+    // Minor units (pence)
+    private long balanceAfter;
+    private long sequenceNumber;
+    // Stored in the same DB transaction as the posting, so it is also the transaction's timestamp. The
+    // idempotency window runs from here, in memory and in the database alike
+    private ZonedDateTime createdTimestamp;
+
+    public boolean matches(UUID accountId, TransactionType type, long amount) {
+        return this.accountId.equals(accountId) && this.type == type && this.amount == amount;
+    }
+}
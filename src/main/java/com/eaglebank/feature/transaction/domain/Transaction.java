@@ -6,7 +6,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
@@ -17,7 +16,12 @@ import java.util.UUID;
 public class Transaction {
     private UUID transactionId;
     private UUID accountId;
-    private BigDecimal amount;
+    // Minor units (pence)
+    private long amount;
     private TransactionType type;
     private ZonedDateTime timestamp;
+    // Account balance once this transaction was applied, in minor units
+    private long balanceAfter;
+    // Position in the account's ledger, starting at 1 and gap-free
+    private long sequenceNumber;
 }
@@ -0,0 +1,123 @@
+package com.eaglebank.feature.transaction.repository;
+
+import com.eaglebank.feature.transaction.domain.DailyBalance;
+import com.eaglebank.feature.transaction.domain.Transaction;
+import com.eaglebank.feature.transaction.web.model.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per account and day rollups of the ledger in {@code daily_account_balance}, so reports over a date range read
+ * one row per day instead of every transaction. A day is the date of the ledger rows' {@code timestamp}.
+ */
+@Repository
+public class DailyBalanceRepository {
+    // Adds one account's postings to its row for today. Ledger rows are stamped with CURRENT_TIMESTAMP, which
+    // like CURRENT_DATE is fixed for the whole DB transaction, so the rollup lands on the same day as its rows.
+    // Postings to an account are serialized by its bank_account row lock, so the row cannot change underneath
+    private static final String RECORD_POSTINGS_SQL = "MERGE INTO daily_account_balance d " +
+            "USING (VALUES (CAST(? AS UUID), CURRENT_DATE, CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS INT), " +
+            "CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+            "AS p (account_id, balance_date, credits, debits, postings, closing_balance, last_sequence_number) " +
+            "ON d.account_id = p.account_id AND d.balance_date = p.balance_date " +
+            "WHEN MATCHED THEN UPDATE SET credits = d.credits + p.credits, debits = d.debits + p.debits, " +
+            "postings = d.postings + p.postings, " +
+            "closing_balance = CASE WHEN p.last_sequence_number > d.last_sequence_number " +
+            "THEN p.closing_balance ELSE d.closing_balance END, " +
+            "last_sequence_number = GREATEST(d.last_sequence_number, p.last_sequence_number) " +
+            "WHEN NOT MATCHED THEN INSERT (account_id, balance_date, credits, debits, postings, closing_balance, " +
+            "last_sequence_number) VALUES (p.account_id, p.balance_date, p.credits, p.debits, p.postings, " +
+            "p.closing_balance, p.last_sequence_number)";
+    // Recomputes every day of one account from the ledger; the closing balance is that of the day's last row
+    private static final String REBUILD_SQL = "INSERT INTO daily_account_balance (account_id, balance_date, credits, " +
+            "debits, postings, closing_balance, last_sequence_number) " +
+            "SELECT g.account_id, g.balance_date, g.credits, g.debits, g.postings, c.balance_after, g.last_sequence_number " +
+            "FROM (SELECT account_id, CAST(timestamp AS DATE) AS balance_date, " +
+            "SUM(CASE WHEN type = 'DEPOSIT' THEN amount ELSE 0 END) AS credits, " +
+            "SUM(CASE WHEN type = 'WITHDRAW' THEN amount ELSE 0 END) AS debits, " +
+            "COUNT(*) AS postings, MAX(sequence_number) AS last_sequence_number " +
+            "FROM transaction WHERE account_id = ? GROUP BY account_id, CAST(timestamp AS DATE)) g " +
+            "JOIN transaction c ON c.account_id = g.account_id AND c.sequence_number = g.last_sequence_number";
+    private static final String DAILY_BALANCE_COLUMNS =
+            "account_id, balance_date, credits, debits, postings, closing_balance, last_sequence_number";
+    private static final RowMapper<DailyBalance> DAILY_BALANCE_ROW_MAPPER = (rs, rowNum) -> DailyBalance.builder()
+            .accountId(rs.getObject(1, UUID.class))
+            .balanceDate(rs.getObject(2, LocalDate.class))
+            .credits(rs.getLong(3))
+            .debits(rs.getLong(4))
+            .postings(rs.getInt(5))
+            .closingBalance(rs.getLong(6))
+            .lastSequenceNumber(rs.getLong(7))
+            .build();
+    private final JdbcTemplate jdbcTemplate;
+
+    public DailyBalanceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Folds freshly inserted ledger rows into today's rollups, in the caller's transaction: one upsert per account,
+     * sent as a single JDBC batch.
+     */
+    public void recordPostings(List<Transaction> transactions) {
+        Map<UUID, DailyBalance> byAccount = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            DailyBalance day = byAccount.computeIfAbsent(transaction.getAccountId(),
+                    accountId -> DailyBalance.builder().accountId(accountId).build());
+            if (TransactionType.DEPOSIT == transaction.getType()) {
+                day.setCredits(day.getCredits() + transaction.getAmount());
+            } else {
+                day.setDebits(day.getDebits() + transaction.getAmount());
+            }
+            day.setPostings(day.getPostings() + 1);
+            if (transaction.getSequenceNumber() > day.getLastSequenceNumber()) {
+                day.setLastSequenceNumber(transaction.getSequenceNumber());
+                day.setClosingBalance(transaction.getBalanceAfter());
+            }
+        }
+        List<DailyBalance> days = new ArrayList<>(byAccount.values());
+        jdbcTemplate.batchUpdate(RECORD_POSTINGS_SQL, days, days.size(), (ps, day) -> {
+            ps.setObject(1, day.getAccountId());
+            ps.setLong(2, day.getCredits());
+            ps.setLong(3, day.getDebits());
+            ps.setInt(4, day.getPostings());
+            ps.setLong(5, day.getClosingBalance());
+            ps.setLong(6, day.getLastSequenceNumber());
+        });
+    }
+
+    /**
+     * Replaces the account's rollups with ones computed from its ledger. The caller holds the account's row lock,
+     * so no posting can land between the delete and the insert.
+     */
+    public void rebuildAccount(UUID accountId) {
+        jdbcTemplate.update("DELETE FROM daily_account_balance WHERE account_id = ?", accountId);
+        jdbcTemplate.update(REBUILD_SQL, accountId);
+    }
+
+    /**
+     * Returns the rollups of the days in {@code [from, to]} that had postings, oldest first.
+     */
+    public List<DailyBalance> getDailyBalances(UUID accountId, LocalDate from, LocalDate to) {
+        String sql = "SELECT " + DAILY_BALANCE_COLUMNS + " FROM daily_account_balance " +
+                "WHERE account_id = ? AND balance_date BETWEEN ? AND ? ORDER BY balance_date";
+        return jdbcTemplate.query(sql, DAILY_BALANCE_ROW_MAPPER, accountId, from, to);
+    }
+
+    /**
+     * Returns the closing balance of the last day before {@code date} that had postings, or 0 if there was none.
+     */
+    public long getClosingBalanceBefore(UUID accountId, LocalDate date) {
+        String sql = "SELECT closing_balance FROM daily_account_balance WHERE account_id = ? AND balance_date < ? " +
+                "ORDER BY balance_date DESC LIMIT 1";
+        return jdbcTemplate.queryForList(sql, Long.class, accountId, date).stream().findFirst().orElse(0L);
+    }
+}
@@ -0,0 +1,62 @@
+package com.eaglebank.feature.transaction.repository;
+
+import com.eaglebank.feature.transaction.domain.IdempotencyRecord;
+import com.eaglebank.feature.transaction.web.model.TransactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class IdempotencyKeyRepository {
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final RowMapper<IdempotencyRecord> IDEMPOTENCY_RECORD_ROW_MAPPER = (rs, rowNum) -> IdempotencyRecord.builder()
+            .userId(rs.getObject("user_id", UUID.class))
+            .idempotencyKey(rs.getString("idempotency_key"))
+            .accountId(rs.getObject("account_id", UUID.class))
+            .type(TransactionType.valueOf(rs.getString("type")))
+            .amount(rs.getLong("amount"))
+            .transactionId(rs.getObject("transaction_id", UUID.class))
+            .balanceAfter(rs.getLong("balance_after"))
+            .sequenceNumber(rs.getLong("sequence_number"))
+            .createdTimestamp(rs.getTimestamp("created_timestamp").toInstant().atZone(UTC))
+            .build();
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stores the key in the caller's transaction, created at the record's timestamp. A key that is already taken
+     * fails with {@link org.springframework.dao.DuplicateKeyException}.
+     */
+    public void createKey(IdempotencyRecord record) {
+        String sql = "INSERT INTO idempotency_key (user_id, idempotency_key, account_id, type, amount, transaction_id, " +
+                "balance_after, sequence_number, created_timestamp) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.update(sql, record.getUserId(), record.getIdempotencyKey(), record.getAccountId(),
+                record.getType().name(), record.getAmount(), record.getTransactionId(),
+                record.getBalanceAfter(), record.getSequenceNumber(),
+                Timestamp.from(record.getCreatedTimestamp().toInstant()));
+    }
+
+    public IdempotencyRecord getKey(UUID userId, String idempotencyKey) {
+        String sql = "SELECT * FROM idempotency_key WHERE user_id = ? AND idempotency_key = ?";
+        List<IdempotencyRecord> records = jdbcTemplate.query(sql, IDEMPOTENCY_RECORD_ROW_MAPPER, userId, idempotencyKey);
+        return records.isEmpty() ? null : records.getFirst();
+    }
+
+    /**
+     * Deletes up to {@code limit} keys created before {@code cutoff} and returns how many went, so callers can
+     * purge a large backlog in short statements instead of one long-running delete.
+     */
+    public int deleteKeysCreatedBefore(Instant cutoff, int limit) {
+        String sql = "DELETE FROM idempotency_key WHERE created_timestamp < ? FETCH FIRST ? ROWS ONLY";
+        return jdbcTemplate.update(sql, Timestamp.from(cutoff), limit);
+    }
+}
@@ -1,49 +1,128 @@
 package com.eaglebank.feature.transaction.repository;
 
 import com.eaglebank.feature.transaction.domain.Transaction;
+import com.eaglebank.feature.transaction.domain.TransactionCursor;
 import com.eaglebank.feature.transaction.web.model.TransactionType;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
 import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Repository
 public class TransactionRepository {
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    // Selected explicitly so the mapper can read by position; keep the two in the same order
+    private static final String TRANSACTION_COLUMNS =
+            "t.transaction_id, t.account_id, t.amount, t.type, t.timestamp, t.balance_after, t.sequence_number";
+    // Restricts a read to accounts owned by the user, in the same query as the rows themselves
+    private static final String OWNED_TRANSACTIONS =
+            "transaction t JOIN bank_account a ON a.account_id = t.account_id AND a.user_id = ?";
+    private static final RowMapper<Transaction> TRANSACTION_ROW_MAPPER = (rs, rowNum) -> Transaction.builder()
+            .transactionId(rs.getObject(1, UUID.class))
+            .accountId(rs.getObject(2, UUID.class))
+            .amount(rs.getLong(3))
+            .type(TransactionType.valueOf(rs.getString(4)))
+            .timestamp(rs.getTimestamp(5).toInstant().atZone(UTC))
+            .balanceAfter(rs.getLong(6))
+            .sequenceNumber(rs.getLong(7))
+            .build();
+    private static final RowMapper<TransactionCursor> TRANSACTION_KEY_ROW_MAPPER = (rs, rowNum) ->
+            new TransactionCursor(rs.getTimestamp(1).toInstant(), rs.getObject(2, UUID.class));
     private final JdbcTemplate jdbcTemplate;
 
     public TransactionRepository(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
     }
 
+    /**
+     * Inserts the row in the caller's transaction. Its balance and sequence number come from the balance update
+     * made in the same transaction, and a sequence number already taken for the account fails the insert.
+     */
     public void createTransaction(Transaction transaction) {
-        jdbcTemplate.update("INSERT INTO transaction (transaction_id, amount, type, timestamp, account_id) VALUES (?, ?, ?, CURRENT_TIMESTAMP, ?) ",
-                UUID.randomUUID(), transaction.getAmount(), transaction.getType().name(), transaction.getAccountId());
+        jdbcTemplate.update("INSERT INTO transaction (transaction_id, amount, type, timestamp, account_id, balance_after, sequence_number) " +
+                        "VALUES (?, ?, ?, CURRENT_TIMESTAMP, ?, ?, ?)",
+                transaction.getTransactionId(), transaction.getAmount(), transaction.getType().name(), transaction.getAccountId(),
+                transaction.getBalanceAfter(), transaction.getSequenceNumber());
     }
 
-    public List<Transaction> getTransactions(UUID accountId) {
-        String sql = "SELECT * FROM transaction WHERE account_id = ? ORDER BY timestamp DESC ";
-        return jdbcTemplate.query(sql, new Object[]{accountId},
-                (rs, rowNum) -> Transaction.builder()
-                        .transactionId(UUID.fromString(rs.getString("transaction_id")))
-                        .accountId(UUID.fromString(rs.getString("account_id")))
-                        .amount(rs.getBigDecimal("amount"))
-                        .type(TransactionType.valueOf(rs.getString("type")))
-                        .timestamp(rs.getTimestamp("timestamp").toInstant().atZone(ZoneId.of("UTC")))
-                        .build());
+    /**
+     * Inserts every row in one JDBC batch.
+     */
+    public void createTransactions(List<Transaction> transactions) {
+        String sql = "INSERT INTO transaction (transaction_id, amount, type, timestamp, account_id, balance_after, sequence_number) " +
+                "VALUES (?, ?, ?, CURRENT_TIMESTAMP, ?, ?, ?)";
+        jdbcTemplate.batchUpdate(sql, transactions, transactions.size(), (ps, transaction) -> {
+            ps.setObject(1, transaction.getTransactionId());
+            ps.setLong(2, transaction.getAmount());
+            ps.setString(3, transaction.getType().name());
+            ps.setObject(4, transaction.getAccountId());
+            ps.setLong(5, transaction.getBalanceAfter());
+            ps.setLong(6, transaction.getSequenceNumber());
+        });
     }
 
-    public Transaction getTransaction(UUID transactionId, UUID accountId) {
-        String sql = "SELECT * FROM transaction WHERE transaction_id = ? AND account_id = ?";
-        return jdbcTemplate.queryForObject(sql, new Object[]{transactionId, accountId},
-                (rs, rowNum) -> Transaction.builder()
-                        .transactionId(UUID.fromString(rs.getString("transaction_id")))
-                        .accountId(UUID.fromString(rs.getString("account_id")))
-                        .amount(rs.getBigDecimal("amount"))
-                        .type(TransactionType.valueOf(rs.getString("type")))
-                        .timestamp(rs.getTimestamp("timestamp").toInstant().atZone(ZoneId.of("UTC")))
-                        .build());
+    /**
+     * Returns the positions of up to {@code limit} transactions older than the cursor, newest first, if
+     * {@code userId} owns the account; otherwise nothing. Each page is a range scan on the (account_id, timestamp,
+     * transaction_id) index that never touches the rows themselves, so its cost does not grow with the history.
+     */
+    public List<TransactionCursor> getTransactionKeys(UUID accountId, UUID userId, TransactionCursor after, int limit) {
+        if (after == null) {
+            String sql = "SELECT t.timestamp, t.transaction_id FROM " + OWNED_TRANSACTIONS + " WHERE t.account_id = ? " +
+                    "ORDER BY t.timestamp DESC, t.transaction_id DESC LIMIT ?";
+            return jdbcTemplate.query(sql, TRANSACTION_KEY_ROW_MAPPER, userId, accountId, limit);
+        }
+        String sql = "SELECT t.timestamp, t.transaction_id FROM " + OWNED_TRANSACTIONS + " WHERE t.account_id = ? " +
+                "AND (t.timestamp, t.transaction_id) < (?, ?) ORDER BY t.timestamp DESC, t.transaction_id DESC LIMIT ?";
+        return jdbcTemplate.query(sql, TRANSACTION_KEY_ROW_MAPPER,
+                userId, accountId, Timestamp.from(after.timestamp()), after.transactionId(), limit);
+    }
+
+    /**
+     * Returns the transactions with the given ids, in no particular order. Ids without a row are skipped.
+     */
+    public List<Transaction> getTransactionsById(Collection<UUID> transactionIds) {
+        if (transactionIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = "SELECT " + TRANSACTION_COLUMNS + " FROM transaction t WHERE t.transaction_id IN (" +
+                String.join(", ", Collections.nCopies(transactionIds.size(), "?")) + ")";
+        return jdbcTemplate.query(sql, TRANSACTION_ROW_MAPPER, transactionIds.toArray());
+    }
+
+    /**
+     * Hands every transaction of the account to {@code action}, newest first, reading through a forward-only,
+     * read-only cursor that pulls {@code fetchSize} rows from the database at a time.
+     */
+    public void streamTransactions(UUID accountId, int fetchSize, Consumer<Transaction> action) {
+        String sql = "SELECT " + TRANSACTION_COLUMNS + " FROM transaction t WHERE t.account_id = ? " +
+                "ORDER BY t.timestamp DESC, t.transaction_id DESC";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, accountId);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(TRANSACTION_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Returns the transaction if it belongs to the account and {@code userId} owns the account.
+     */
+    public Optional<Transaction> getTransaction(UUID transactionId, UUID accountId, UUID userId) {
+        String sql = "SELECT " + TRANSACTION_COLUMNS + " FROM " + OWNED_TRANSACTIONS +
+                " WHERE t.transaction_id = ? AND t.account_id = ?";
+        return jdbcTemplate.query(sql, TRANSACTION_ROW_MAPPER, userId, transactionId, accountId).stream().findFirst();
     }
 }
 
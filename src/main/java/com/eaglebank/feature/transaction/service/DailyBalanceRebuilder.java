@@ -0,0 +1,120 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.account.repository.BankAccountRepository;
+import com.eaglebank.feature.common.exception.ResourceNotFoundException;
+import com.eaglebank.feature.transaction.repository.DailyBalanceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Recomputes the {@code daily_account_balance} rollups from the ledger, for backfilling the table or repairing
+ * it. Accounts are rebuilt in parallel on a fixed pool, each in its own short transaction that first takes the
+ * account's row lock, so a rebuild queues behind in-flight postings to that account and postings queue behind it;
+ * live traffic keeps flowing to every other account. Operators start one at runtime through
+ * {@link com.eaglebank.feature.transaction.web.DailyBalanceRebuildEndpoint}, or once at startup with
+ * {@code rebuild-on-startup}.
+ */
+@Slf4j
+@Component
+public class DailyBalanceRebuilder {
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int pageSize;
+    private final boolean rebuildOnStartup;
+    private final ExecutorService executor;
+    private final Timer rebuildLatency;
+
+    public DailyBalanceRebuilder(DailyBalanceRepository dailyBalanceRepository,
+                                 BankAccountRepository bankAccountRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${eaglebank.transaction.daily-balance.rebuild-threads:4}") int threads,
+                                 @Value("${eaglebank.transaction.daily-balance.rebuild-page-size:500}") int pageSize,
+                                 @Value("${eaglebank.transaction.daily-balance.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        if (threads <= 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Daily balance rebuild threads and page size must be positive");
+        }
+        this.dailyBalanceRepository = dailyBalanceRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.pageSize = pageSize;
+        this.rebuildOnStartup = rebuildOnStartup;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("daily-balance-rebuild-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+        this.rebuildLatency = Timer.builder("eaglebank.transaction.daily-balance.rebuild")
+                .description("Time to recompute the daily balance rollups of one account")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            log.info("Rebuilt daily balances for {} accounts", rebuildAll());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Rebuilds the given accounts in parallel and waits for all of them. Returns how many were rebuilt; accounts
+     * that do not exist, or were deleted meanwhile, are skipped.
+     */
+    public int rebuild(Collection<UUID> accountIds) {
+        List<CompletableFuture<Boolean>> rebuilds = accountIds.stream()
+                .map(accountId -> CompletableFuture.supplyAsync(() -> rebuildAccount(accountId), executor))
+                .toList();
+        return (int) rebuilds.stream().filter(CompletableFuture::join).count();
+    }
+
+    public int rebuildAll() {
+        return rebuildRange(null, null);
+    }
+
+    /**
+     * Rebuilds the accounts with ids greater than {@code after} and no greater than {@code upTo}, one page of
+     * account ids at a time in primary key order, so only a page of work is ever queued on the pool. A
+     * {@code null} bound leaves that end of the range open.
+     */
+    public int rebuildRange(UUID after, UUID upTo) {
+        int rebuilt = 0;
+        List<UUID> page = bankAccountRepository.getAccountIdsAfter(after, upTo, pageSize);
+        while (!page.isEmpty()) {
+            rebuilt += rebuild(page);
+            page = page.size() < pageSize ? List.of()
+                    : bankAccountRepository.getAccountIdsAfter(page.getLast(), upTo, pageSize);
+        }
+        return rebuilt;
+    }
+
+    private boolean rebuildAccount(UUID accountId) {
+        return rebuildLatency.record(() -> transactionTemplate.execute(status -> {
+            try {
+                bankAccountRepository.lockAccountBalance(accountId);
+            } catch (ResourceNotFoundException e) {
+                return false;
+            }
+            dailyBalanceRepository.rebuildAccount(accountId);
+            return true;
+        }));
+    }
+}
@@ -0,0 +1,216 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.transaction.domain.Transaction;
+import com.eaglebank.feature.transaction.repository.DailyBalanceRepository;
+import com.eaglebank.feature.transaction.repository.TransactionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Group commit for transaction posts. Callers hand their posting to a single writer thread, which applies the
+ * postings of many callers inside one DB transaction (each behind its own savepoint), writes all of their ledger
+ * rows as one JDBC batch and commits once. A group is flushed when it reaches the maximum batch size or when the
+ * maximum wait since its first posting has passed, and callers are only released once their group is committed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "eaglebank.ledger.group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitLedgerWriter {
+    private final TransactionRepository transactionRepository;
+    private final DailyBalanceRepository dailyBalanceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingPosting<?>> queue = new LinkedBlockingQueue<>();
+    private final DistributionSummary batchSize;
+    private final Timer flushLatency;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public GroupCommitLedgerWriter(TransactionRepository transactionRepository,
+                                   DailyBalanceRepository dailyBalanceRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${eaglebank.ledger.group-commit.max-batch-size:256}") int maxBatchSize,
+                                   @Value("${eaglebank.ledger.group-commit.max-wait-micros:500}") long maxWaitMicros) {
+        if (maxBatchSize <= 0 || maxWaitMicros < 0) {
+            throw new IllegalArgumentException("Group commit batch size must be positive and max wait must not be negative");
+        }
+        this.transactionRepository = transactionRepository;
+        this.dailyBalanceRepository = dailyBalanceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.batchSize = DistributionSummary.builder("eaglebank.ledger.group-commit.batch.size")
+                .description("Postings committed together in one group")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("eaglebank.ledger.group-commit.flush")
+                .description("Time to apply, write and commit one group")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.writerThread = new Thread(this::run, "ledger-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Runs the posting on the writer thread and blocks until the group it joined has been committed.
+     * The posting must not write ledger rows itself; it returns them so the writer can batch them.
+     */
+    public <T> T post(Supplier<LedgerPosting<T>> posting) {
+        if (!running) {
+            throw new IllegalStateException("Ledger writer has been stopped");
+        }
+        PendingPosting<T> pending = new PendingPosting<>(posting);
+        queue.add(pending);
+        // The writer may have stopped and drained the queue since the check above; whoever removes the posting
+        // from the queue completes it, so it is failed here or run by the writer, never left waiting
+        if (!running && queue.remove(pending)) {
+            pending.fail(new IllegalStateException("Ledger writer has been stopped"));
+        }
+        try {
+            return pending.durable.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void run() {
+        List<PendingPosting<?>> group = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(group);
+            } catch (InterruptedException e) {
+                // Treated as a stop: queued postings are still written, new ones are turned away. The interrupt
+                // is not restored, or every later poll would throw at once and the loop would spin
+                running = false;
+                log.warn("Ledger writer interrupted, stopping after {} pending postings", group.size() + queue.size());
+            }
+            if (!group.isEmpty()) {
+                flush(group);
+                group.clear();
+            }
+        }
+        queue.drainTo(group);
+        group.forEach(pending -> pending.fail(new IllegalStateException("Ledger writer has been stopped")));
+    }
+
+    private void collect(List<PendingPosting<?>> group) throws InterruptedException {
+        PendingPosting<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        group.add(first);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (group.size() < maxBatchSize) {
+            if (queue.drainTo(group, maxBatchSize - group.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            PendingPosting<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void flush(List<PendingPosting<?>> group) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyAndWrite(group, status));
+            group.forEach(PendingPosting::release);
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                group.getFirst().fail(e);
+            } else {
+                // Something outside a single posting failed, so retry each one in its own group
+                log.warn("Group commit of {} postings failed, retrying individually", group.size(), e);
+                group.forEach(pending -> flush(List.of(pending)));
+                return;
+            }
+        }
+        batchSize.record(group.size());
+        flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void applyAndWrite(List<PendingPosting<?>> group, TransactionStatus status) {
+        List<Transaction> entries = new ArrayList<>();
+        for (PendingPosting<?> pending : group) {
+            Object savepoint = status.createSavepoint();
+            try {
+                entries.addAll(pending.apply());
+                status.releaseSavepoint(savepoint);
+            } catch (RuntimeException e) {
+                status.rollbackToSavepoint(savepoint);
+                pending.failure = e;
+            }
+        }
+        if (!entries.isEmpty()) {
+            transactionRepository.createTransactions(entries);
+            dailyBalanceRepository.recordPostings(entries);
+        }
+    }
+
+    private static final class PendingPosting<T> {
+        private final Supplier<LedgerPosting<T>> posting;
+        private final CompletableFuture<T> durable = new CompletableFuture<>();
+        private T result;
+        private RuntimeException failure;
+
+        private PendingPosting(Supplier<LedgerPosting<T>> posting) {
+            this.posting = posting;
+        }
+
+        private List<Transaction> apply() {
+            failure = null;
+            LedgerPosting<T> applied = posting.get();
+            result = applied.result();
+            return applied.entries();
+        }
+
+        private void release() {
+            if (failure != null) {
+                durable.completeExceptionally(failure);
+            } else {
+                durable.complete(result);
+            }
+        }
+
+        private void fail(RuntimeException e) {
+            durable.completeExceptionally(e);
+        }
+    }
+}
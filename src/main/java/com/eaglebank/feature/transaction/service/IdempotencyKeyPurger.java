@@ -0,0 +1,85 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.transaction.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes stored Idempotency-Keys once they are older than the idempotency window. The in-memory cache in
+ * {@link IdempotentRequests} expires its entries at the end of the same window, counted from the same
+ * {@code created_timestamp}, so a key stops being honoured in both places together, give or take one purge interval. Runs on a fixed delay, deleting in batches so no single statement holds locks for long.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyPurger {
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final Duration retention;
+    private final Duration purgeInterval;
+    private final int batchSize;
+    private final ScheduledExecutorService purger;
+    private final Counter purged;
+
+    public IdempotencyKeyPurger(IdempotencyKeyRepository idempotencyKeyRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${eaglebank.transaction.idempotency.cache-ttl:24h}") Duration retention,
+                                @Value("${eaglebank.transaction.idempotency.purge-interval:1h}") Duration purgeInterval,
+                                @Value("${eaglebank.transaction.idempotency.purge-batch-size:1000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Idempotency key purge batch size must be positive");
+        }
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.retention = retention;
+        this.purgeInterval = purgeInterval;
+        this.batchSize = batchSize;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("idempotency-purge-");
+        threadFactory.setDaemon(true);
+        this.purger = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.purged = Counter.builder("eaglebank.transaction.idempotency.purged")
+                .description("Stored Idempotency-Keys deleted after the idempotency window")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        purger.scheduleWithFixedDelay(() -> {
+            try {
+                purge();
+            } catch (RuntimeException e) {
+                // Expired keys stay until the next run, which tries again
+                log.warn("Failed to purge expired idempotency keys", e);
+            }
+        }, 0, purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        purger.shutdownNow();
+    }
+
+    /**
+     * Deletes every key created before the start of the idempotency window and returns how many went.
+     */
+    int purge() {
+        Instant cutoff = Instant.now().minus(retention);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = idempotencyKeyRepository.deleteKeysCreatedBefore(cutoff, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        purged.increment(total);
+        return total;
+    }
+}
@@ -0,0 +1,112 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.transaction.domain.IdempotencyRecord;
+import com.eaglebank.feature.transaction.repository.IdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.AccessDeniedException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs each Idempotency-Key at most once per user. The idempotency_key table is the durable record and is
+ * written in the same DB transaction as the posting. A bounded cache in front of it answers recent replays in
+ * memory, and holds the in-flight future of a key so concurrent requests with it wait for one execution.
+ * Failed executions are not remembered, so a retry after a failure runs again.
+ * <p>
+ * A cached result expires at the end of the idempotency window counted from the key's {@code created_timestamp},
+ * the same instant {@link IdempotencyKeyPurger} deletes the stored row from, so a key is honoured for the same
+ * time whichever of the two answers it.
+ */
+@Component
+public class IdempotentRequests {
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final AsyncCache<Key, IdempotencyRecord> results;
+
+    public IdempotentRequests(IdempotencyKeyRepository idempotencyKeyRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${eaglebank.transaction.idempotency.cache-size:10000}") long cacheSize,
+                              @Value("${eaglebank.transaction.idempotency.cache-ttl:24h}") Duration cacheTtl) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.creating((Key key, IdempotencyRecord record) -> remainingWindow(record, cacheTtl)))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "idempotency-keys");
+    }
+
+    public IdempotencyRecord execute(UUID userId, String idempotencyKey, Posting posting) throws AccessDeniedException {
+        Key key = new Key(userId, idempotencyKey);
+        CompletableFuture<IdempotencyRecord> result = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> existing = results.asMap().putIfAbsent(key, result);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            IdempotencyRecord record = idempotencyKeyRepository.getKey(userId, idempotencyKey);
+            if (record == null) {
+                record = postOnce(userId, idempotencyKey, posting);
+            }
+            result.complete(record);
+            return record;
+        } catch (Throwable e) {
+            // The cache drops a future that completes exceptionally. Errors too, or waiters on the key hang
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Duration remainingWindow(IdempotencyRecord record, Duration window) {
+        if (record.getCreatedTimestamp() == null) {
+            return window;
+        }
+        Instant end = record.getCreatedTimestamp().toInstant().plus(window);
+        Duration remaining = Duration.between(Instant.now(), end);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private IdempotencyRecord postOnce(UUID userId, String idempotencyKey, Posting posting) throws AccessDeniedException {
+        try {
+            return posting.post();
+        } catch (DuplicateKeyException e) {
+            // Another instance committed the same key first and our posting was rolled back
+            return idempotencyKeyRepository.getKey(userId, idempotencyKey);
+        }
+    }
+
+    private static IdempotencyRecord await(CompletableFuture<IdempotencyRecord> result) throws AccessDeniedException {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AccessDeniedException accessDenied) {
+                throw accessDenied;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Posting {
+        IdempotencyRecord post() throws AccessDeniedException;
+    }
+
+    private record Key(UUID userId, String idempotencyKey) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.transaction.domain.Transaction;
+
+import java.util.List;
+
+/**
+ * The outcome of applying one posting's balance change, plus the ledger rows it still has to write.
+ */
+public record LedgerPosting<T>(T result, List<Transaction> entries) {
+}
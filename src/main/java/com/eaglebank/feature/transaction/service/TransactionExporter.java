@@ -0,0 +1,112 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.common.money.MinorUnits;
+import com.eaglebank.feature.transaction.domain.Transaction;
+import com.eaglebank.feature.transaction.repository.TransactionRepository;
+import com.eaglebank.feature.transaction.web.model.TransactionExportFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * Writes an account's history straight from a forward-only JDBC cursor to the response, one row at a time,
+ * so memory use does not depend on how many transactions the account has.
+ */
+@Component
+public class TransactionExporter {
+    private static final String CSV_HEADER = "transactionId,amount,type,timestamp,balanceAfter,sequenceNumber\n";
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int fetchSize;
+
+    public TransactionExporter(TransactionRepository transactionRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${eaglebank.transaction.export.fetch-size:500}") int fetchSize) {
+        this.transactionRepository = transactionRepository;
+        // Some drivers (PostgreSQL among them) only honour the fetch size with auto-commit off
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    public void export(UUID accountId, TransactionExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            switch (format) {
+                case NDJSON -> writeNdjson(accountId, writer);
+                case CSV -> writeCsv(accountId, writer);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(UUID accountId, Writer writer) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(writer);
+        stream(accountId, transaction -> {
+            generator.writeStartObject();
+            generator.writeStringField("transactionId", transaction.getTransactionId().toString());
+            generator.writeNumberField("amount", MinorUnits.toDecimal(transaction.getAmount()));
+            generator.writeStringField("type", transaction.getType().name());
+            generator.writeStringField("timestamp", timestamp(transaction));
+            generator.writeNumberField("balanceAfter", MinorUnits.toDecimal(transaction.getBalanceAfter()));
+            generator.writeNumberField("sequenceNumber", transaction.getSequenceNumber());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        });
+        generator.flush();
+    }
+
+    private void writeCsv(UUID accountId, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        stream(accountId, transaction -> {
+            writer.write(transaction.getTransactionId().toString());
+            writer.write(',');
+            writer.write(MinorUnits.toDecimal(transaction.getAmount()).toPlainString());
+            writer.write(',');
+            writer.write(transaction.getType().name());
+            writer.write(',');
+            writer.write(timestamp(transaction));
+            writer.write(',');
+            writer.write(MinorUnits.toDecimal(transaction.getBalanceAfter()).toPlainString());
+            writer.write(',');
+            writer.write(Long.toString(transaction.getSequenceNumber()));
+            writer.write('\n');
+        });
+    }
+
+    private void stream(UUID accountId, RowWriter rowWriter) {
+        readOnlyTransactionTemplate.executeWithoutResult(status ->
+                transactionRepository.streamTransactions(accountId, fetchSize, transaction -> {
+                    try {
+                        rowWriter.write(transaction);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+    }
+
+    private static String timestamp(Transaction transaction) {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(transaction.getTimestamp());
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Transaction transaction) throws IOException;
+    }
+}
@@ -0,0 +1,117 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.transaction.web.model.ListTransactionsResponse;
+import com.eaglebank.feature.transaction.web.model.TransactionResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Serialized {@link TransactionResponse} JSON by transaction id, bounded by the total size of the cached bytes.
+ * A ledger row never changes once written, so an entry never goes stale and is only dropped to make room. History
+ * pages are spliced together from these fragments, so a row already served is not read, mapped or serialized
+ * again.
+ * <p>
+ * The page envelope is written here by hand and has to stay in step with {@link ListTransactionsResponse}.
+ */
+@Component
+public class TransactionJsonCache {
+    // Rough cost of an entry beyond its JSON: the key, the array header and the cache node
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+    private static final byte[] PAGE_START = "{\"transactions\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NEXT_CURSOR = "],\"nextCursor\":".getBytes(StandardCharsets.UTF_8);
+    // The last page has no cursor, and the field is left out rather than written as null
+    private static final byte[] LAST_PAGE_END = "]".getBytes(StandardCharsets.UTF_8);
+    private final ObjectMapper objectMapper;
+    private final Cache<UUID, byte[]> fragments;
+
+    public TransactionJsonCache(ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${eaglebank.transaction.json-cache.max-size:64MB}") DataSize maxSize) {
+        this.objectMapper = objectMapper;
+        this.fragments = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((UUID transactionId, byte[] json) -> json.length + ENTRY_OVERHEAD_BYTES)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, fragments, "transaction-json");
+        Gauge.builder("eaglebank.transaction.json-cache.bytes", fragments,
+                        cache -> cache.policy().eviction().orElseThrow().weightedSize().orElse(0))
+                .description("Weighted size of the cached transaction JSON")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the JSON of a {@link ListTransactionsResponse} holding the given transactions in the given order.
+     * Ids missing from the cache are handed to {@code loader} in a single call and the results cached; an id the
+     * loader returns nothing for is left out of the page.
+     */
+    public byte[] writePage(List<UUID> transactionIds, String nextCursor,
+                            Function<Collection<UUID>, List<TransactionResponse>> loader) {
+        Map<UUID, byte[]> json = fragments.getAll(transactionIds,
+                missing -> serialize(loader.apply(Collections.unmodifiableSet(missing))));
+        byte[] cursor = nextCursor == null ? null : serialize(nextCursor);
+        int size = PAGE_START.length + NEXT_CURSOR.length + (cursor == null ? 0 : cursor.length) + 1
+                + transactionIds.size();
+        for (byte[] fragment : json.values()) {
+            size += fragment.length;
+        }
+        ByteArrayOutputStream page = new ByteArrayOutputStream(size);
+        page.writeBytes(PAGE_START);
+        boolean first = true;
+        for (UUID transactionId : transactionIds) {
+            byte[] fragment = json.get(transactionId);
+            if (fragment == null) {
+                continue;
+            }
+            if (!first) {
+                page.write(',');
+            }
+            page.writeBytes(fragment);
+            first = false;
+        }
+        if (cursor == null) {
+            page.writeBytes(LAST_PAGE_END);
+        } else {
+            page.writeBytes(NEXT_CURSOR);
+            page.writeBytes(cursor);
+        }
+        page.write('}');
+        return page.toByteArray();
+    }
+
+    private Map<UUID, byte[]> serialize(List<TransactionResponse> transactions) {
+        Map<UUID, byte[]> json = new HashMap<>(transactions.size() * 2);
+        for (TransactionResponse transaction : transactions) {
+            json.put(transaction.getTransactionId(), serialize((Object) transaction));
+        }
+        return json;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,102 +1,427 @@
 package com.eaglebank.feature.transaction.service;
 
 import com.eaglebank.feature.account.repository.BankAccountRepository;
+import com.eaglebank.feature.account.repository.domain.BalanceUpdate;
+import com.eaglebank.feature.account.repository.domain.BalanceUpdateOutcome;
+import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.eaglebank.feature.common.exception.ConflictException;
 import com.eaglebank.feature.common.exception.InsufficientFundsException;
 import com.eaglebank.feature.common.exception.ResourceNotFoundException;
+import com.eaglebank.feature.common.money.MinorUnits;
+import com.eaglebank.feature.common.web.ResourceVersion;
+import com.eaglebank.feature.transaction.domain.DailyBalance;
+import com.eaglebank.feature.transaction.domain.IdempotencyRecord;
 import com.eaglebank.feature.transaction.domain.Transaction;
+import com.eaglebank.feature.transaction.domain.TransactionCursor;
+import com.eaglebank.feature.transaction.repository.DailyBalanceRepository;
+import com.eaglebank.feature.transaction.repository.IdempotencyKeyRepository;
 import com.eaglebank.feature.transaction.repository.TransactionRepository;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionRequest;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionResponse;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionResult;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionStatus;
+import com.eaglebank.feature.transaction.web.model.DailyBalanceResponse;
+import com.eaglebank.feature.transaction.web.model.ListTransactionsResponse;
+import com.eaglebank.feature.transaction.web.model.TransactionExportFormat;
 import com.eaglebank.feature.transaction.web.model.TransactionRequest;
 import com.eaglebank.feature.transaction.web.model.TransactionResponse;
 import com.eaglebank.feature.transaction.web.model.TransactionType;
+import com.eaglebank.feature.transaction.web.model.TransferRequest;
+import com.eaglebank.feature.transaction.web.model.TransferResponse;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.math.BigDecimal;
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class TransactionService {
+    // Longest range a daily balance report may cover, inclusive of both ends
+    private static final int MAX_REPORT_DAYS = 366;
     private final TransactionRepository transactionRepository;
     private final BankAccountRepository bankAccountRepository;
+    private final AccountSequencer accountSequencer;
+    private final TransactionTemplate transactionTemplate;
+    private final GroupCommitLedgerWriter ledgerWriter;
+    private final TransactionExporter transactionExporter;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotentRequests idempotentRequests;
+    private final TransactionJsonCache transactionJsonCache;
+    private final DailyBalanceRepository dailyBalanceRepository;
 
-    public TransactionService(TransactionRepository transactionRepository, BankAccountRepository bankAccountRepository) {
+    public TransactionService(TransactionRepository transactionRepository,
+                              BankAccountRepository bankAccountRepository,
+                              AccountSequencer accountSequencer,
+                              TransactionTemplate transactionTemplate,
+                              Optional<GroupCommitLedgerWriter> ledgerWriter,
+                              TransactionExporter transactionExporter,
+                              IdempotencyKeyRepository idempotencyKeyRepository,
+                              IdempotentRequests idempotentRequests,
+                              TransactionJsonCache transactionJsonCache,
+                              DailyBalanceRepository dailyBalanceRepository) {
         this.transactionRepository = transactionRepository;
         this.bankAccountRepository = bankAccountRepository;
+        this.accountSequencer = accountSequencer;
+        this.transactionTemplate = transactionTemplate;
+        this.ledgerWriter = ledgerWriter.orElse(null);
+        this.transactionExporter = transactionExporter;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.idempotentRequests = idempotentRequests;
+        this.transactionJsonCache = transactionJsonCache;
+        this.dailyBalanceRepository = dailyBalanceRepository;
     }
 
-    @Transactional
-    public void createTransaction(UUID accountId, UUID userId, TransactionRequest request) throws AccessDeniedException {
-        // Validate account ownership and get current balance
-        BigDecimal balance = bankAccountRepository.getBalance(accountId, userId);
-        if (balance == null) {
-            throw new AccessDeniedException("Account not found or access denied");
+    /**
+     * Posts a single deposit or withdrawal. With an Idempotency-Key, a retry of a post that already succeeded
+     * returns the original transaction instead of moving money again, and reusing the key for a different
+     * request is rejected.
+     */
+    public TransactionResponse createTransaction(UUID accountId, UUID userId, TransactionRequest request,
+                                                 String idempotencyKey) throws AccessDeniedException {
+        long amount = MinorUnits.of(request.getAmount());
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
         }
+        if (TransactionType.WITHDRAW != request.getType() && TransactionType.DEPOSIT != request.getType()) {
+            throw new IllegalArgumentException("Transaction type must be DEPOSIT or WITHDRAWAL");
+        }
+
+        if (idempotencyKey == null) {
+            return getTransactionResponse(post(transaction(accountId, request.getType(), amount), userId, null));
+        }
+        IdempotencyRecord record = idempotentRequests.execute(userId, idempotencyKey, () -> {
+            Transaction transaction = post(transaction(accountId, request.getType(), amount), userId, idempotencyKey);
+            return idempotencyRecord(transaction, userId, idempotencyKey);
+        });
+        if (!record.matches(accountId, request.getType(), amount)) {
+            throw new ConflictException("Idempotency-Key has already been used for a different request");
+        }
+        return TransactionResponse.builder()
+                .transactionId(record.getTransactionId())
+                .amount(MinorUnits.toDecimal(record.getAmount()))
+                .type(record.getType())
+                .balanceAfter(MinorUnits.toDecimal(record.getBalanceAfter()))
+                .sequenceNumber(record.getSequenceNumber())
+                .timestamp(record.getCreatedTimestamp())
+                .build();
+    }
+
+    private Transaction post(Transaction transaction, UUID userId, String idempotencyKey) throws AccessDeniedException {
+        // Posts to the same account queue in-process, and the DB transaction only starts once it is our turn
+        BalanceUpdateOutcome outcome = accountSequencer.execute(transaction.getAccountId(), () -> ledgerWriter != null
+                ? ledgerWriter.post(() -> applyPost(transaction, userId, idempotencyKey))
+                : transactionTemplate.execute(status -> record(applyPost(transaction, userId, idempotencyKey))));
+        verifyBalanceUpdated(outcome);
+        return transaction;
+    }
+
+    private LedgerPosting<BalanceUpdateOutcome> applyPost(Transaction transaction, UUID userId, String idempotencyKey) {
+        UUID accountId = transaction.getAccountId();
+        long amount = transaction.getAmount();
+        // Ownership, funds and the balance change are checked and applied in a single statement
+        BalanceUpdate update = TransactionType.WITHDRAW == transaction.getType()
+                ? bankAccountRepository.withdrawBalance(amount, accountId, userId)
+                : bankAccountRepository.depositBalance(amount, accountId, userId);
+        if (update.outcome() != BalanceUpdateOutcome.APPLIED) {
+            return new LedgerPosting<>(update.outcome(), List.of());
+        }
+        transaction.setBalanceAfter(update.balance());
+        transaction.setSequenceNumber(update.sequenceNumber());
+        transaction.setTimestamp(update.timestamp());
+        if (idempotencyKey != null) {
+            // A key committed concurrently elsewhere fails here and rolls this posting back
+            idempotencyKeyRepository.createKey(idempotencyRecord(transaction, userId, idempotencyKey));
+        }
+        return new LedgerPosting<>(update.outcome(), List.of(transaction));
+    }
+
+    private static IdempotencyRecord idempotencyRecord(Transaction transaction, UUID userId, String idempotencyKey) {
+        return IdempotencyRecord.builder()
+                .userId(userId)
+                .idempotencyKey(idempotencyKey)
+                .accountId(transaction.getAccountId())
+                .type(transaction.getType())
+                .amount(transaction.getAmount())
+                .transactionId(transaction.getTransactionId())
+                .balanceAfter(transaction.getBalanceAfter())
+                .sequenceNumber(transaction.getSequenceNumber())
+                .createdTimestamp(transaction.getTimestamp())
+                .build();
+    }
+
+    private <T> T record(LedgerPosting<T> posting) {
+        posting.entries().forEach(transactionRepository::createTransaction);
+        dailyBalanceRepository.recordPostings(posting.entries());
+        return posting.result();
+    }
+
+    /**
+     * Posts a batch against one account in three statements: lock the balance, apply the net change once and
+     * insert every accepted row in a single JDBC batch. Items are applied in order against a running balance,
+     * and each one that cannot be applied is rejected on its own without failing the rest of the batch.
+     */
+    public BatchTransactionResponse createTransactions(UUID accountId, UUID userId, BatchTransactionRequest request) throws AccessDeniedException {
+        BatchPosting posting = accountSequencer.execute(accountId,
+                () -> transactionTemplate.execute(status -> postBatch(accountId, userId, request.getTransactions())));
+        verifyBalanceUpdated(posting.outcome());
+        return posting.response();
+    }
+
+    private BatchPosting postBatch(UUID accountId, UUID userId, List<TransactionRequest> requests) {
+        BankAccount account = bankAccountRepository.lockAccountBalance(accountId);
+        if (!account.getUserId().equals(userId)) {
+            return new BatchPosting(BalanceUpdateOutcome.NOT_OWNER, null);
+        }
+
+        long balance = account.getBalance();
+        long sequenceNumber = account.getLastSequenceNumber();
+        List<Transaction> accepted = new ArrayList<>();
+        List<BatchTransactionResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest item = requests.get(i);
+            long amount;
+            try {
+                amount = MinorUnits.of(item.getAmount());
+            } catch (IllegalArgumentException e) {
+                results.add(rejected(i, e.getMessage()));
+                continue;
+            }
+            if (amount <= 0) {
+                results.add(rejected(i, "Amount must be positive"));
+            } else if (TransactionType.WITHDRAW == item.getType() && balance < amount) {
+                results.add(rejected(i, "Insufficient funds"));
+            } else {
+                try {
+                    balance = TransactionType.WITHDRAW == item.getType()
+                            ? Math.subtractExact(balance, amount)
+                            : Math.addExact(balance, amount);
+                } catch (ArithmeticException e) {
+                    results.add(rejected(i, "Deposit would exceed the maximum balance"));
+                    continue;
+                }
+                Transaction transaction = transaction(accountId, item.getType(), amount);
+                transaction.setBalanceAfter(balance);
+                transaction.setSequenceNumber(++sequenceNumber);
+                accepted.add(transaction);
+                results.add(BatchTransactionResult.builder()
+                        .index(i)
+                        .status(BatchTransactionStatus.ACCEPTED)
+                        .transactionId(transaction.getTransactionId())
+                        .build());
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            bankAccountRepository.applyBalanceDelta(balance - account.getBalance(), accepted.size(), accountId);
+            transactionRepository.createTransactions(accepted);
+            dailyBalanceRepository.recordPostings(accepted);
+        }
+        BatchTransactionResponse response = BatchTransactionResponse.builder()
+                .balance(MinorUnits.toDecimal(balance))
+                .results(results)
+                .build();
+        return new BatchPosting(BalanceUpdateOutcome.APPLIED, response);
+    }
 
-        BigDecimal amount = request.getAmount();
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    /**
+     * Moves money between two accounts in one DB transaction: both rows are locked, both balances change and
+     * both legs are inserted in a single JDBC batch. Rows are always locked in account id order, so opposing
+     * transfers between the same accounts queue behind each other instead of deadlocking, including across
+     * instances that do not share the in-process sequencer.
+     */
+    public TransferResponse transfer(UUID accountId, UUID userId, TransferRequest request) throws AccessDeniedException {
+        long amount = MinorUnits.of(request.getAmount());
+        if (amount <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
+        UUID toAccountId = request.getToAccountId();
+        if (accountId.equals(toAccountId)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+
+        TransferPosting posting = accountSequencer.execute(accountId, toAccountId,
+                () -> transactionTemplate.execute(status -> postTransfer(accountId, userId, toAccountId, amount)));
+        verifyBalanceUpdated(posting.outcome());
+        return posting.response();
+    }
 
-        if (TransactionType.WITHDRAW == request.getType()) {
-            if (balance.compareTo(amount) < 0) {
-                throw new InsufficientFundsException("Insufficient funds");
+    private TransferPosting postTransfer(UUID fromAccountId, UUID userId, UUID toAccountId, long amount) {
+        boolean fromFirst = fromAccountId.compareTo(toAccountId) < 0;
+        BankAccount first = bankAccountRepository.lockAccountBalance(fromFirst ? fromAccountId : toAccountId);
+        BankAccount second = bankAccountRepository.lockAccountBalance(fromFirst ? toAccountId : fromAccountId);
+        BankAccount from = fromFirst ? first : second;
+        BankAccount to = fromFirst ? second : first;
+        if (!from.getUserId().equals(userId)) {
+            return new TransferPosting(BalanceUpdateOutcome.NOT_OWNER, null);
+        }
+        if (from.getBalance() < amount) {
+            return new TransferPosting(BalanceUpdateOutcome.INSUFFICIENT_FUNDS, null);
+        }
+
+        long creditedBalance;
+        try {
+            creditedBalance = Math.addExact(to.getBalance(), amount);
+        } catch (ArithmeticException e) {
+            // Nothing has been written yet; the exception rolls back the locks
+            throw new IllegalArgumentException("Transfer would exceed the maximum balance of the destination account");
+        }
+        bankAccountRepository.applyBalanceDelta(-amount, 1, fromAccountId);
+        bankAccountRepository.applyBalanceDelta(amount, 1, toAccountId);
+        Transaction debit = transaction(fromAccountId, TransactionType.WITHDRAW, amount);
+        debit.setBalanceAfter(from.getBalance() - amount);
+        debit.setSequenceNumber(from.getLastSequenceNumber() + 1);
+        Transaction credit = transaction(toAccountId, TransactionType.DEPOSIT, amount);
+        credit.setBalanceAfter(creditedBalance);
+        credit.setSequenceNumber(to.getLastSequenceNumber() + 1);
+        List<Transaction> legs = List.of(debit, credit);
+        transactionRepository.createTransactions(legs);
+        dailyBalanceRepository.recordPostings(legs);
+        TransferResponse response = TransferResponse.builder()
+                .debitTransactionId(debit.getTransactionId())
+                .creditTransactionId(credit.getTransactionId())
+                .balance(MinorUnits.toDecimal(from.getBalance() - amount))
+                .build();
+        return new TransferPosting(BalanceUpdateOutcome.APPLIED, response);
+    }
+
+    private static BatchTransactionResult rejected(int index, String reason) {
+        return BatchTransactionResult.builder()
+                .index(index)
+                .status(BatchTransactionStatus.REJECTED)
+                .reason(reason)
+                .build();
+    }
+
+    private static void verifyBalanceUpdated(BalanceUpdateOutcome outcome) throws AccessDeniedException {
+        switch (outcome) {
+            case APPLIED -> {
             }
-            bankAccountRepository.withdrawBalance(amount, accountId);
+            case ACCOUNT_NOT_FOUND -> throw new ResourceNotFoundException("Account not found");
+            case NOT_OWNER -> throw new AccessDeniedException("Account not found or access denied");
+            case INSUFFICIENT_FUNDS -> throw new InsufficientFundsException("Insufficient funds");
+        }
+    }
 
-        } else if (TransactionType.DEPOSIT == request.getType()) {
-            bankAccountRepository.depositBalance(amount, accountId);
-        } else {
-            throw new IllegalArgumentException("Transaction type must be DEPOSIT or WITHDRAWAL");
+    /**
+     * Returns one page of history, newest first, as the JSON of a {@link ListTransactionsResponse}. Only the
+     * page's positions are read from the index; the rows themselves come from {@link TransactionJsonCache}, and
+     * just those not cached yet are loaded. One extra position is fetched to tell whether another page follows,
+     * in which case the cursor of the last returned row is handed back for the next request.
+     */
+    public byte[] getTransactions(UUID accountId, UUID userId, int limit, String after) throws AccessDeniedException {
+        TransactionCursor cursor = after == null ? null : TransactionCursor.decode(after);
+        List<TransactionCursor> keys = transactionRepository.getTransactionKeys(accountId, userId, cursor, limit + 1);
+        if (keys.isEmpty()) {
+            // Empty because the history ends here, or because the account is missing or someone else's
+            verifyAccountOwner(accountId, userId);
         }
-        Transaction transaction = transaction(accountId, request, amount);
-        transactionRepository.createTransaction(transaction);
+        boolean hasMore = keys.size() > limit;
+        List<TransactionCursor> page = hasMore ? keys.subList(0, limit) : keys;
+        return transactionJsonCache.writePage(
+                page.stream().map(TransactionCursor::transactionId).toList(),
+                hasMore ? page.get(limit - 1).encode() : null,
+                missing -> transactionRepository.getTransactionsById(missing).stream()
+                        .map(TransactionService::getTransactionResponse)
+                        .toList());
     }
 
-    public List<TransactionResponse> getTransactions(UUID accountId, UUID userId) throws AccessDeniedException {
-        Integer count = bankAccountRepository.countBankAccounts(accountId, userId);
-        if (count == null) {
-            throw new ResourceNotFoundException("Account not found");
+    /**
+     * Validator for the account's history, read from the account row alone. It is read before the page, so a
+     * posting in between can only leave the tag older than the body, never newer.
+     */
+    public Optional<ResourceVersion> getTransactionsVersion(UUID accountId, UUID userId) {
+        return bankAccountRepository.getLedgerVersion(accountId, userId);
+    }
+
+    /**
+     * Returns one entry per day in {@code [from, to]}, read from the daily rollups rather than the ledger. Days
+     * without postings carry the previous closing balance forward with zero credits and debits.
+     */
+    public List<DailyBalanceResponse> getDailyBalances(UUID accountId, UUID userId, LocalDate from, LocalDate to) throws AccessDeniedException {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
         }
-        if (count == 0) {
-            throw new AccessDeniedException("Account not found or access denied");
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_REPORT_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_REPORT_DAYS + " days");
+        }
+        verifyAccountOwner(accountId, userId);
+
+        long closingBalance = dailyBalanceRepository.getClosingBalanceBefore(accountId, from);
+        Iterator<DailyBalance> days = dailyBalanceRepository.getDailyBalances(accountId, from, to).iterator();
+        DailyBalance next = days.hasNext() ? days.next() : null;
+        List<DailyBalanceResponse> report = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            DailyBalanceResponse.DailyBalanceResponseBuilder day = DailyBalanceResponse.builder().date(date);
+            if (next != null && next.getBalanceDate().equals(date)) {
+                closingBalance = next.getClosingBalance();
+                day.credits(MinorUnits.toDecimal(next.getCredits()))
+                        .debits(MinorUnits.toDecimal(next.getDebits()))
+                        .postings(next.getPostings());
+                next = days.hasNext() ? days.next() : null;
+            } else {
+                day.credits(MinorUnits.toDecimal(0)).debits(MinorUnits.toDecimal(0)).postings(0);
+            }
+            report.add(day.closingBalance(MinorUnits.toDecimal(closingBalance)).build());
         }
-        List<Transaction> transactions = transactionRepository.getTransactions(accountId);
-        return transactions.stream()
-                .map(TransactionService::getTransactionResponse)
-                .toList();
+        return report;
+    }
+
+    /**
+     * Checks access up front, so a missing or foreign account fails with the usual status, and returns a body
+     * that streams the whole history once the response is committed.
+     */
+    public StreamingResponseBody exportTransactions(UUID accountId, UUID userId, TransactionExportFormat format) throws AccessDeniedException {
+        verifyAccountOwner(accountId, userId);
+        return out -> transactionExporter.export(accountId, format, out);
     }
 
     public TransactionResponse getTransaction(UUID transactionId, UUID accountId, UUID userId) throws AccessDeniedException {
-        Integer count = bankAccountRepository.countBankAccounts(accountId, userId);
-        if (count == null) {
-            throw new ResourceNotFoundException("Account not found");
+        Optional<Transaction> transaction = transactionRepository.getTransaction(transactionId, accountId, userId);
+        if (transaction.isEmpty()) {
+            verifyAccountOwner(accountId, userId);
+            throw new ResourceNotFoundException("Transaction not found for this account");
         }
-        if (count == 0) {
+        return getTransactionResponse(transaction.get());
+    }
+
+    private void verifyAccountOwner(UUID accountId, UUID userId) throws AccessDeniedException {
+        UUID owner = bankAccountRepository.getAccountOwner(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        if (!owner.equals(userId)) {
             throw new AccessDeniedException("Account not found or access denied");
         }
-        Transaction transaction = transactionRepository.getTransaction(transactionId, accountId);
-        if (transaction == null) {
-            throw new ResourceNotFoundException("Transaction not found for this account");
-        }
-        return getTransactionResponse(transaction);
     }
 
     private static TransactionResponse getTransactionResponse(Transaction txn) {
         return TransactionResponse.builder()
                 .transactionId(txn.getTransactionId())
-                .amount(txn.getAmount())
+                .amount(MinorUnits.toDecimal(txn.getAmount()))
                 .type(txn.getType())
                 .timestamp(txn.getTimestamp())
+                .balanceAfter(MinorUnits.toDecimal(txn.getBalanceAfter()))
+                .sequenceNumber(txn.getSequenceNumber())
                 .build();
     }
 
-    private static Transaction transaction(UUID accountId, TransactionRequest request, BigDecimal amount) {
+    private record BatchPosting(BalanceUpdateOutcome outcome, BatchTransactionResponse response) {
+    }
+
+    private record TransferPosting(BalanceUpdateOutcome outcome, TransferResponse response) {
+    }
+
+    private static Transaction transaction(UUID accountId, TransactionType type, long amount) {
         return Transaction.builder()
+                .transactionId(UUID.randomUUID())
                 .accountId(accountId)
                 .amount(amount)
-                .type(request.getType())
+                .type(type)
                 .build();
     }
 }
@@ -0,0 +1,38 @@
+package com.eaglebank.feature.transaction.web;
+
+import com.eaglebank.feature.transaction.service.DailyBalanceRebuilder;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lets operators recompute daily balance rollups from the ledger once they have drifted, without a restart.
+ * {@code POST /actuator/dailybalances/{accountId}} rebuilds one account; {@code POST /actuator/dailybalances} with
+ * optional {@code after} and {@code upTo} account ids rebuilds that range, or every account when both are left out.
+ * Like every actuator endpoint beyond health it needs the bearer token of an operator.
+ */
+@Component
+@Endpoint(id = "dailybalances")
+public class DailyBalanceRebuildEndpoint {
+    private final DailyBalanceRebuilder dailyBalanceRebuilder;
+
+    public DailyBalanceRebuildEndpoint(DailyBalanceRebuilder dailyBalanceRebuilder) {
+        this.dailyBalanceRebuilder = dailyBalanceRebuilder;
+    }
+
+    @WriteOperation
+    public Map<String, Integer> rebuildRange(@Nullable UUID after, @Nullable UUID upTo) {
+        return Map.of("rebuilt", dailyBalanceRebuilder.rebuildRange(after, upTo));
+    }
+
+    @WriteOperation
+    public Map<String, Integer> rebuildAccount(@Selector UUID accountId) {
+        return Map.of("rebuilt", dailyBalanceRebuilder.rebuild(List.of(accountId)));
+    }
+}
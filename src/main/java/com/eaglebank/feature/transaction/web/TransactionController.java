@@ -1,12 +1,20 @@
 package com.eaglebank.feature.transaction.web;
 
-import com.eaglebank.feature.auth.JwtProvider;
+import com.eaglebank.feature.common.web.AuthenticatedUser;
 import com.eaglebank.feature.common.web.BaseController;
 import com.eaglebank.feature.transaction.service.TransactionService;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionRequest;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionResponse;
+import com.eaglebank.feature.transaction.web.model.DailyBalanceResponse;
+import com.eaglebank.feature.transaction.web.model.ListTransactionsResponse;
+import com.eaglebank.feature.transaction.web.model.TransactionExportFormat;
 import com.eaglebank.feature.transaction.web.model.TransactionRequest;
 import com.eaglebank.feature.transaction.web.model.TransactionResponse;
+import com.eaglebank.feature.transaction.web.model.TransferRequest;
+import com.eaglebank.feature.transaction.web.model.TransferResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,12 +22,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,54 +45,169 @@ import java.util.UUID;
 @Tag(name = "Transactions", description = "Apis related to transactions")
 @SecurityRequirement(name = "bearerAuth")
 public class TransactionController extends BaseController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
     private final TransactionService transactionService;
 
-    public TransactionController(JwtProvider jwtProvider, TransactionService transactionService) {
-        super(jwtProvider);
+    public TransactionController(TransactionService transactionService) {
         this.transactionService = transactionService;
     }
 
     @PostMapping()
     @Operation(
             summary = "Create a new transaction",
-            description = "Creates a new transaction for the specified account."
+            description = "Creates a new transaction for the specified account. Send an Idempotency-Key to make " +
+                    "retries safe: a repeated key returns the original transaction instead of posting again."
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Transaction created"),
+            @ApiResponse(responseCode = "201", description = "Transaction created",
+                    content = @Content(schema = @Schema(implementation = TransactionResponse.class))),
             @ApiResponse(responseCode = "400", description = "Validation error"),
             @ApiResponse(responseCode = "401", description = "Access token is missing or invalid"),
             @ApiResponse(responseCode = "403", description = "Operation not allowed"),
             @ApiResponse(responseCode = "404", description = "Account not found"),
+            @ApiResponse(responseCode = "409", description = "Idempotency-Key already used for a different request"),
             @ApiResponse(responseCode = "422", description = "Insufficient funds to process transaction"),
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
-    public ResponseEntity<?> createTransaction(@PathVariable UUID accountId,
-                                               @RequestBody @Valid TransactionRequest request,
-                                               @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) throws AccessDeniedException {
-        UUID userId = getAuthenticatedUserId(authHeader);
-        transactionService.createTransaction(accountId, userId, request);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+    public ResponseEntity<TransactionResponse> createTransaction(@PathVariable UUID accountId,
+                                                                 @RequestBody @Valid TransactionRequest request,
+                                                                 @Parameter(description = "Client-chosen key that identifies retries of this request")
+                                                                 @RequestHeader(value = IDEMPOTENCY_KEY, required = false) @Size(max = 255) String idempotencyKey,
+                                                                 @AuthenticatedUser UUID userId) throws AccessDeniedException {
+        TransactionResponse response = transactionService.createTransaction(accountId, userId, request, idempotencyKey);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Create a batch of transactions",
+            description = "Applies deposits and withdrawals to the specified account in order, in one database transaction. " +
+                    "Each item is accepted or rejected individually."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results",
+                    content = @Content(schema = @Schema(implementation = BatchTransactionResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "401", description = "Access token is missing or invalid"),
+            @ApiResponse(responseCode = "403", description = "Operation not allowed"),
+            @ApiResponse(responseCode = "404", description = "Account not found"),
+            @ApiResponse(responseCode = "500", description = "Unexpected error")
+    })
+    public BatchTransactionResponse createTransactions(@PathVariable UUID accountId,
+                                                       @RequestBody @Valid BatchTransactionRequest request,
+                                                       @AuthenticatedUser UUID userId) throws AccessDeniedException {
+        return transactionService.createTransactions(accountId, userId, request);
+    }
+
+    @PostMapping("/transfer")
+    @Operation(
+            summary = "Transfer to another account",
+            description = "Debits the specified account and credits the destination account atomically."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Transfer completed",
+                    content = @Content(schema = @Schema(implementation = TransferResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "401", description = "Access token is missing or invalid"),
+            @ApiResponse(responseCode = "403", description = "Operation not allowed"),
+            @ApiResponse(responseCode = "404", description = "Account not found"),
+            @ApiResponse(responseCode = "422", description = "Insufficient funds to process transfer"),
+            @ApiResponse(responseCode = "500", description = "Unexpected error")
+    })
+    public ResponseEntity<TransferResponse> transfer(@PathVariable UUID accountId,
+                                                     @RequestBody @Valid TransferRequest request,
+                                                     @AuthenticatedUser UUID userId) throws AccessDeniedException {
+        return ResponseEntity.status(HttpStatus.CREATED).body(transactionService.transfer(accountId, userId, request));
     }
 
     @GetMapping()
     @Operation(
-            summary = "List all transactions for an account",
-            description = "Retrieves all transactions for the specified account."
+            summary = "List transactions for an account",
+            description = "Retrieves one page of transactions for the specified account, newest first. " +
+                    "Pass the returned nextCursor as 'after' to fetch the following page. Send the returned ETag " +
+                    "as If-None-Match to get a 304 while the history is unchanged."
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "List of transactions",
-                    content = @Content(schema = @Schema(implementation = TransactionResponse.class))),
+            @ApiResponse(responseCode = "200", description = "Page of transactions",
+                    content = @Content(schema = @Schema(implementation = ListTransactionsResponse.class))),
+            @ApiResponse(responseCode = "304", description = "History unchanged since the given ETag or date"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit or cursor"),
             @ApiResponse(responseCode = "401", description = "Access token is missing or invalid"),
             @ApiResponse(responseCode = "404", description = "Account not found"),
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
-    public List<TransactionResponse> listTransactions(
+    public ResponseEntity<byte[]> listTransactions(
+            @Parameter(description = "Account ID", required = true)
+            @PathVariable UUID accountId,
+            @Parameter(description = "Maximum number of transactions to return")
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page")
+            @RequestParam(required = false) String after,
+            @AuthenticatedUser UUID userId,
+            ServletWebRequest request) throws AccessDeniedException {
+        if (notModified(request, transactionService.getTransactionsVersion(accountId, userId))) {
+            return null;
+        }
+        // Already serialized, largely from cached fragments, so it is written out as is
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(transactionService.getTransactions(accountId, userId, limit, after));
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export all transactions for an account",
+            description = "Streams the full history of the specified account, newest first, as NDJSON or CSV."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transaction history",
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Unsupported format"),
+            @ApiResponse(responseCode = "401", description = "Access token is missing or invalid"),
+            @ApiResponse(responseCode = "403", description = "Operation not allowed"),
+            @ApiResponse(responseCode = "404", description = "Account not found"),
+            @ApiResponse(responseCode = "500", description = "Unexpected error")
+    })
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @Parameter(description = "Account ID", required = true)
+            @PathVariable UUID accountId,
+            @Parameter(description = "Output format")
+            @RequestParam(defaultValue = "NDJSON") TransactionExportFormat format,
+            @AuthenticatedUser UUID userId) throws AccessDeniedException {
+        StreamingResponseBody body = transactionService.exportTransactions(accountId, userId, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions-" + accountId + "." + format.name().toLowerCase())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping("/daily-balances")
+    @Operation(
+            summary = "Daily balances for an account",
+            description = "Returns credits, debits, postings and the closing balance for every day in the range, " +
+                    "read from daily rollups kept alongside the ledger. Ranges may cover up to 366 days."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One entry per day, oldest first",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = DailyBalanceResponse.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "401", description = "Access token is missing or invalid"),
+            @ApiResponse(responseCode = "403", description = "Operation not allowed"),
+            @ApiResponse(responseCode = "404", description = "Account not found"),
+            @ApiResponse(responseCode = "500", description = "Unexpected error")
+    })
+    public List<DailyBalanceResponse> getDailyBalances(
             @Parameter(description = "Account ID", required = true)
             @PathVariable UUID accountId,
-            @Parameter(description = "Bearer token", required = true)
-            @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) throws AccessDeniedException {
-        UUID userId = getAuthenticatedUserId(authHeader);
-        return transactionService.getTransactions(accountId, userId);
+            @Parameter(description = "First day of the range, inclusive", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day of the range, inclusive", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticatedUser UUID userId) throws AccessDeniedException {
+        return transactionService.getDailyBalances(accountId, userId, from, to);
     }
 
     @GetMapping("/{transactionId}")
@@ -95,9 +227,7 @@ public class TransactionController extends BaseController {
             @PathVariable UUID accountId,
             @Parameter(description = "Transaction ID", required = true)
             @PathVariable UUID transactionId,
-            @Parameter(description = "Bearer token", required = true)
-            @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) throws AccessDeniedException {
-        UUID userId = getAuthenticatedUserId(authHeader);
+            @AuthenticatedUser UUID userId) throws AccessDeniedException {
         return transactionService.getTransaction(transactionId, accountId, userId);
     }
 }
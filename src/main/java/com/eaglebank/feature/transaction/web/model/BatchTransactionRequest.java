@@ -0,0 +1,23 @@
+package com.eaglebank.feature.transaction.web.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema
+public class BatchTransactionRequest {
+    @NotEmpty(message = "At least one transaction is required.")
+    @Size(max = 1000, message = "A batch can hold at most 1000 transactions.")
+    private List<@Valid TransactionRequest> transactions;
+}
@@ -0,0 +1,16 @@
+package com.eaglebank.feature.transaction.web.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@Schema
+public class BatchTransactionResponse {
+    private BigDecimal balance;
+    private List<BatchTransactionResult> results;
+}
@@ -0,0 +1,17 @@
+package com.eaglebank.feature.transaction.web.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@Schema
+public class BatchTransactionResult {
+    private int index;
+    private BatchTransactionStatus status;
+    private UUID transactionId;
+    private String reason;
+}
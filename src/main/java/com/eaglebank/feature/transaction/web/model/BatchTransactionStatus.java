@@ -0,0 +1,6 @@
+package com.eaglebank.feature.transaction.web.model;
+
+public enum BatchTransactionStatus {
+    ACCEPTED,
+    REJECTED;
+}
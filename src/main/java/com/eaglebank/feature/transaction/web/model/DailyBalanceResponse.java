@@ -0,0 +1,19 @@
+package com.eaglebank.feature.transaction.web.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@Schema
+public class DailyBalanceResponse {
+    private LocalDate date;
+    private BigDecimal credits;
+    private BigDecimal debits;
+    private Integer postings;
+    private BigDecimal closingBalance;
+}
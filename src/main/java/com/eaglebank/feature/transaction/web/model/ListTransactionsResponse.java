@@ -0,0 +1,18 @@
+package com.eaglebank.feature.transaction.web.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema
+public class ListTransactionsResponse {
+    private List<TransactionResponse> transactions;
+    @Schema(description = "Pass as 'after' to fetch the next page; absent on the last page")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.eaglebank.feature.transaction.web.model;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+@Getter
+public enum TransactionExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    TransactionExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+}
@@ -1,6 +1,8 @@
 package com.eaglebank.feature.transaction.web.model;
 
+import com.eaglebank.feature.common.money.MinorUnits;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +14,7 @@ import java.math.BigDecimal;
 @Schema
 public class TransactionRequest {
     @NotNull
+    @DecimalMax(value = MinorUnits.MAX_AMOUNT, message = "Amount must not exceed " + MinorUnits.MAX_AMOUNT)
     private BigDecimal amount;
     @NotNull
     private TransactionType type;
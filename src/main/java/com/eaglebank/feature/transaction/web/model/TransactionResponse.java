@@ -16,5 +16,7 @@ public class TransactionResponse {
     private BigDecimal amount;
     private TransactionType type;
     private ZonedDateTime timestamp;
+    private BigDecimal balanceAfter;
+    private Long sequenceNumber;
 }
 
@@ -0,0 +1,22 @@
+package com.eaglebank.feature.transaction.web.model;
+
+import com.eaglebank.feature.common.money.MinorUnits;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+@Schema
+public class TransferRequest {
+    @NotNull
+    private UUID toAccountId;
+    @NotNull
+    @DecimalMax(value = MinorUnits.MAX_AMOUNT, message = "Amount must not exceed " + MinorUnits.MAX_AMOUNT)
+    private BigDecimal amount;
+}
@@ -0,0 +1,20 @@
+package com.eaglebank.feature.transaction.web.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+@Schema
+public class TransferResponse {
+    @Schema(description = "WITHDRAW leg on the source account")
+    private UUID debitTransactionId;
+    @Schema(description = "DEPOSIT leg on the destination account")
+    private UUID creditTransactionId;
+    @Schema(description = "Source account balance after the transfer")
+    private BigDecimal balance;
+}
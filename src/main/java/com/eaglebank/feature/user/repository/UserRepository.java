@@ -1,18 +1,28 @@
 package com.eaglebank.feature.user.repository;
 
 import com.eaglebank.feature.user.repository.domain.User;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.time.ZonedDateTime;
 import java.util.UUID;
 
 @Repository
 public class UserRepository {
+    private static final String USER_COLUMNS = "user_id, name, email, phone, created_timestamp, updated_timestamp";
+    private static final RowMapper<User> USER_ROW_MAPPER = (rs, rowNum) -> User.builder()
+            .userId(rs.getObject(1, UUID.class))
+            .name(rs.getString(2))
+            .email(rs.getString(3))
+            .phone(rs.getString(4))
+            .createdTimestamp(rs.getObject(5, ZonedDateTime.class))
+            .updatedTimestamp(rs.getObject(6, ZonedDateTime.class))
+            .build();
     private final JdbcTemplate jdbcTemplate;
 
     public UserRepository(JdbcTemplate jdbcTemplate) {
@@ -34,8 +44,8 @@ public class UserRepository {
     }
 
     public User getUser(UUID userId) {
-        String sql = "SELECT * FROM users WHERE user_id = ?";
-        return jdbcTemplate.queryForObject(sql, new BeanPropertyRowMapper<>(User.class), userId);
+        String sql = "SELECT " + USER_COLUMNS + " FROM users WHERE user_id = ?";
+        return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, userId);
     }
 
     public void updateUser(UUID userId, User user) {
@@ -12,6 +12,7 @@ import com.eaglebank.feature.common.exception.ConflictException;
 import com.eaglebank.feature.account.repository.BankAccountRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.UUID;
 
@@ -20,19 +21,26 @@ public class UserService {
     private final UserRepository userRepository;
     private final IdentityService identityService;
     private final BankAccountRepository bankAccountRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    public UserService(UserRepository userRepository, IdentityService identityService, BankAccountRepository bankAccountRepository) {
+    public UserService(UserRepository userRepository, IdentityService identityService, BankAccountRepository bankAccountRepository,
+                       TransactionTemplate transactionTemplate) {
         this.userRepository = userRepository;
         this.identityService = identityService;
         this.bankAccountRepository = bankAccountRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @Transactional
     public UserResponse createUser(CreateUserRequest createUserRequest) {
+        // Hashed before the transaction opens, so a burst of registrations never holds connections while waiting
+        // for the hashing pool
+        Identity identity = identity(createUserRequest, identityService.encodePassword(createUserRequest.getPassword()));
         User user = user(createUserRequest);
-        UUID userId = userRepository.createUser(user);
-        identityService.createIdentity(userId, identity(createUserRequest));
-        return userResponse(userId, user);
+        return transactionTemplate.execute(status -> {
+            UUID userId = userRepository.createUser(user);
+            identityService.createIdentity(userId, identity);
+            return userResponse(userId, user);
+        });
     }
 
     public UserResponse getUser(UUID userId) {
@@ -76,10 +84,10 @@ public class UserService {
                 .build();
     }
 
-    private static Identity identity(CreateUserRequest createUserRequest) {
+    private static Identity identity(CreateUserRequest createUserRequest, String encodedPassword) {
         return Identity.builder()
                 .email(createUserRequest.getEmail())
-                .password(createUserRequest.getPassword())
+                .password(encodedPassword)
                 .build();
     }
 
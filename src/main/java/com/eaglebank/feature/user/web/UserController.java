@@ -1,6 +1,7 @@
 package com.eaglebank.feature.user.web;
 
-import com.eaglebank.feature.auth.JwtProvider;
+import com.eaglebank.feature.auth.ratelimit.AuthRateLimits;
+import com.eaglebank.feature.common.web.AuthenticatedUser;
 import com.eaglebank.feature.common.web.BaseController;
 import com.eaglebank.feature.user.service.UserService;
 import com.eaglebank.feature.user.web.model.CreateUserRequest;
@@ -12,8 +13,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,11 +27,11 @@ import java.util.UUID;
 @Tag(name = "Users", description = "Apis related to users")
 public class UserController extends BaseController {
     private final UserService userService;
+    private final AuthRateLimits authRateLimits;
 
-    public UserController(JwtProvider jwtProvider,
-                          UserService userService) {
-        super(jwtProvider);
+    public UserController(UserService userService, AuthRateLimits authRateLimits) {
         this.userService = userService;
+        this.authRateLimits = authRateLimits;
     }
 
     @PostMapping
@@ -38,9 +39,12 @@ public class UserController extends BaseController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Created"),
             @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "429", description = "Too many registrations, retry after the Retry-After delay"),
             @ApiResponse(responseCode = "500", description = "Unexpected error")
     })
-    public ResponseEntity<UserResponse> createUser(@Valid @RequestBody CreateUserRequest createUserRequest) {
+    public ResponseEntity<UserResponse> createUser(@Valid @RequestBody CreateUserRequest createUserRequest,
+                                                   HttpServletRequest request) {
+        authRateLimits.checkRegistration(request.getRemoteAddr(), createUserRequest.getEmail());
         UserResponse response = userService.createUser(createUserRequest);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -53,8 +57,8 @@ public class UserController extends BaseController {
             @ApiResponse(responseCode = "404", description = "User not found")
     })
     public UserResponse getUser(@PathVariable UUID userId,
-                                @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) throws AccessDeniedException {
-        validateUserId(userId, authHeader);
+                                @AuthenticatedUser UUID authenticatedUserId) throws AccessDeniedException {
+        validateUserId(userId, authenticatedUserId);
         return userService.getUser(userId);
     }
 
@@ -68,8 +72,8 @@ public class UserController extends BaseController {
     })
     public void updateUser(@PathVariable UUID userId,
                            @Valid @RequestBody UpdateUserRequest updateUserRequest,
-                           @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) throws AccessDeniedException {
-        validateUserId(userId, authHeader);
+                           @AuthenticatedUser UUID authenticatedUserId) throws AccessDeniedException {
+        validateUserId(userId, authenticatedUserId);
         userService.updateUser(userId, updateUserRequest);
     }
 
@@ -82,8 +86,8 @@ public class UserController extends BaseController {
         @ApiResponse(responseCode = "409", description = "User has bank account(s)")
     })
     public ResponseEntity<Void> deleteUser(@PathVariable UUID userId,
-                                           @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) throws AccessDeniedException {
-        validateUserId(userId, authHeader);
+                                           @AuthenticatedUser UUID authenticatedUserId) throws AccessDeniedException {
+        validateUserId(userId, authenticatedUserId);
         userService.deleteUser(userId);
         return ResponseEntity.noContent().build();
     }
@@ -15,14 +15,30 @@ CREATE TABLE identity (
                           FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
 );
 
+-- Only a hash of each refresh token is kept; a token is deleted when it is exchanged, so it works once
+CREATE TABLE refresh_token (
+                               token_id UUID PRIMARY KEY,
+                               token_hash VARCHAR(64) UNIQUE NOT NULL,
+                               user_id UUID NOT NULL,
+                               expires_at TIMESTAMP NOT NULL,
+                               created_timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                               FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_refresh_token_user ON refresh_token (user_id, expires_at);
+
 CREATE TABLE bank_account (
                               account_id UUID PRIMARY KEY,
                               name VARCHAR(100),
                               account_type VARCHAR(20),
                               account_number VARCHAR(20) UNIQUE NOT NULL,
                               sort_code VARCHAR(20),
-                              balance DECIMAL(19,2) NOT NULL DEFAULT 0.00,
+                              -- Minor units (pence)
+                              balance BIGINT NOT NULL DEFAULT 0,
                               currency VARCHAR(10),
+                              last_sequence_number BIGINT NOT NULL DEFAULT 0,
+                              -- Bumped by every update, so clients can revalidate a cached copy of the account
+                              version BIGINT NOT NULL DEFAULT 0,
                               user_id UUID NOT NULL,
                               created_timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                               updated_timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -32,9 +48,52 @@ CREATE TABLE bank_account (
 
 CREATE TABLE transaction (
                              transaction_id UUID PRIMARY KEY,
-                             amount DOUBLE PRECISION NOT NULL,
+                             -- Minor units (pence)
+                             amount BIGINT NOT NULL,
                              type VARCHAR(10) NOT NULL,
                              timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                              account_id UUID NOT NULL,
+                             -- Running balance in minor units, written atomically with the balance update
+                             balance_after BIGINT NOT NULL,
+                             sequence_number BIGINT NOT NULL,
                              FOREIGN KEY (account_id) REFERENCES bank_account(account_id) ON DELETE CASCADE
 );
+
+-- Serves each history page as a range scan, newest first
+CREATE INDEX idx_transaction_account_timestamp ON transaction (account_id, timestamp DESC, transaction_id DESC);
+
+-- One row per position in an account's ledger; the balance as of any posting is a single lookup
+CREATE UNIQUE INDEX idx_transaction_account_sequence ON transaction (account_id, sequence_number);
+
+-- One row per account and day with postings, kept in step with the ledger in the same transaction, so reports
+-- over a date range read one row per day instead of every transaction
+CREATE TABLE daily_account_balance (
+                                       account_id UUID NOT NULL,
+                                       balance_date DATE NOT NULL,
+                                       -- Minor units (pence) deposited and withdrawn that day
+                                       credits BIGINT NOT NULL,
+                                       debits BIGINT NOT NULL,
+                                       postings INT NOT NULL,
+                                       -- Balance after the day's last posting, and that posting's sequence number
+                                       closing_balance BIGINT NOT NULL,
+                                       last_sequence_number BIGINT NOT NULL,
+                                       PRIMARY KEY (account_id, balance_date),
+                                       FOREIGN KEY (account_id) REFERENCES bank_account(account_id) ON DELETE CASCADE
+);
+
+CREATE TABLE idempotency_key (
+                                 user_id UUID NOT NULL,
+                                 idempotency_key VARCHAR(255) NOT NULL,
+                                 account_id UUID NOT NULL,
+                                 type VARCHAR(10) NOT NULL,
+                                 amount BIGINT NOT NULL,
+                                 transaction_id UUID NOT NULL,
+                                 balance_after BIGINT NOT NULL,
+                                 sequence_number BIGINT NOT NULL,
+                                 created_timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                 PRIMARY KEY (user_id, idempotency_key),
+                                 FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
+
+-- Keys are purged once they are older than the idempotency window
+CREATE INDEX idx_idempotency_key_created ON idempotency_key (created_timestamp);
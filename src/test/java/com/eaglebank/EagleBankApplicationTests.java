@@ -1,20 +1,42 @@
 package com.eaglebank;
 
+import com.eaglebank.feature.account.repository.BankAccountRepository;
+import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.eaglebank.feature.account.web.model.AccountType;
+import com.eaglebank.feature.auth.JwtProvider;
+import com.eaglebank.feature.user.repository.UserRepository;
+import com.eaglebank.feature.user.repository.domain.User;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
-@SpringBootTest
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+@SpringBootTest(properties = "eaglebank.auth.operator-user-ids=" + EagleBankApplicationTests.OPERATOR_ID)
 @AutoConfigureMockMvc
 class EagleBankApplicationTests {
+    static final String OPERATOR_ID = "00000000-0000-0000-0000-00000000000a";
 
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private JwtProvider jwtProvider;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
 
     @Test
     void contextLoads() {
@@ -26,4 +48,127 @@ class EagleBankApplicationTests {
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    void authMeters_servedByMetricsEndpoint() throws Exception {
+        String token = "Bearer " + jwtProvider.generateToken(UUID.fromString(OPERATOR_ID));
+        for (String meter : new String[]{"eaglebank.rate-limit.requests", "eaglebank.auth.password.rejected",
+                "eaglebank.auth.email-filter.lookups"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/{name}", meter)
+                            .header("Authorization", token))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.name").value(meter));
+        }
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/eaglebank.rate-limit.requests")
+                        .param("tag", "endpoint:login")
+                        .param("tag", "result:rejected")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.measurements[0].statistic").value("COUNT"));
+    }
+
+    @Test
+    void accountCacheMeters_servedByMetricsEndpoint() throws Exception {
+        String token = "Bearer " + jwtProvider.generateToken(UUID.fromString(OPERATOR_ID));
+        for (String meter : new String[]{"cache.gets", "cache.evictions", "cache.size"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/{name}", meter)
+                            .param("tag", "cache:accounts")
+                            .header("Authorization", token))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.name").value(meter));
+        }
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/cache.gets")
+                        .param("tag", "cache:accounts")
+                        .param("tag", "result:hit")
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    void actuatorOutsideHealth_requiresOperatorToken() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        String customerToken = "Bearer " + jwtProvider.generateToken(UUID.randomUUID());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics")
+                        .header("Authorization", customerToken))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/eaglebank.rate-limit.requests")
+                        .header("Authorization", customerToken))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/healthz"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    void postingInTheSameSecond_isNotHiddenByIfModifiedSince() throws Exception {
+        UUID userId = userRepository.createUser(User.builder().name("Same Second").email(UUID.randomUUID() + "@test.com").build());
+        UUID accountId = createAccount(userId);
+        String token = "Bearer " + jwtProvider.generateToken(userId);
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/accounts/{accountId}", accountId)
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/v1/accounts/{accountId}/transactions", accountId)
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 10.00, \"type\": \"DEPOSIT\", \"currency\": \"GBP\"}"))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        // A date no earlier than the posting, to a whole second, as a client holding an older copy might send it
+        String ifModifiedSince = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/accounts/{accountId}", accountId)
+                        .header("Authorization", token)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSince))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.balance").value(10.0));
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/accounts/{accountId}/transactions", accountId)
+                        .header("Authorization", token)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSince))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.transactions.length()").value(1));
+    }
+
+    @Test
+    void postedTransaction_timestampMatchesStoredRow() throws Exception {
+        UUID userId = userRepository.createUser(User.builder().name("Timestamps").email(UUID.randomUUID() + "@test.com").build());
+        UUID accountId = createAccount(userId);
+        String token = "Bearer " + jwtProvider.generateToken(userId);
+        String body = "{\"amount\": 10.00, \"type\": \"DEPOSIT\", \"currency\": \"GBP\"}";
+
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/v1/accounts/{accountId}/transactions", accountId)
+                        .header("Authorization", token)
+                        .header("Idempotency-Key", "timestamps")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String transactionId = JsonPath.read(created, "$.transactionId");
+        String timestamp = JsonPath.read(created, "$.timestamp");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/v1/accounts/{accountId}/transactions", accountId)
+                        .header("Authorization", token)
+                        .header("Idempotency-Key", "timestamps")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.transactionId").value(transactionId))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.timestamp").value(timestamp));
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/accounts/{accountId}/transactions/{transactionId}", accountId, transactionId)
+                        .header("Authorization", token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.timestamp").value(timestamp));
+    }
+
+    private UUID createAccount(UUID userId) {
+        return bankAccountRepository.createAccount(userId, BankAccount.builder()
+                .name("current")
+                .accountType(AccountType.CURRENT)
+                .accountNumber(String.valueOf(ThreadLocalRandom.current().nextLong(10_000_000_000L, 99_999_999_999L)))
+                .sortCode("10-10-10")
+                .currency("GBP")
+                .build());
+    }
+
 }
@@ -6,26 +6,33 @@ import com.eaglebank.feature.account.web.model.BankAccountResponse;
 import com.eaglebank.feature.account.web.model.CreateBankAccountRequest;
 import com.eaglebank.feature.account.web.model.UpdateBankAccountRequest;
 import com.eaglebank.feature.auth.JwtProvider;
+import com.eaglebank.feature.common.web.ResourceVersion;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.List;
+import java.util.Optional;
 
 import static com.eaglebank.feature.common.TestIds.ACCOUNT_ID;
 import static com.eaglebank.feature.common.TestIds.USER_ID;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BankAccountController.class)
@@ -97,13 +104,70 @@ class BankAccountControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("Given an account, when GET /v1/accounts/{accountId}, then its ETag is sent with the body")
+    void getAccount_sendsValidators() throws Exception {
+        // Given
+        String token = "123456";
+        when(jwtProvider.getUserId(token)).thenReturn(USER_ID);
+        when(bankAccountService.getAccountVersion(ACCOUNT_ID, USER_ID))
+                .thenReturn(Optional.of(ResourceVersion.of("3")));
+        when(bankAccountService.getAccountForUser(ACCOUNT_ID, USER_ID)).thenReturn(bankAccountResponse);
+        // When & Then
+        mockMvc.perform(get("/v1/accounts/" + ACCOUNT_ID)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+    }
+
+    @Test
+    @DisplayName("Given a matching If-None-Match, when GET /v1/accounts/{accountId}, then return 304 without loading the account")
+    void getAccount_notModified() throws Exception {
+        // Given
+        String token = "123456";
+        when(jwtProvider.getUserId(token)).thenReturn(USER_ID);
+        when(bankAccountService.getAccountVersion(ACCOUNT_ID, USER_ID))
+                .thenReturn(Optional.of(ResourceVersion.of("3")));
+        // When & Then
+        mockMvc.perform(get("/v1/accounts/" + ACCOUNT_ID)
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(bankAccountService, never()).getAccountForUser(any(), any());
+    }
+
+    @Test
+    @DisplayName("Given a stale If-None-Match, when GET /v1/accounts/{accountId}, then return 200 with the account")
+    void getAccount_modified() throws Exception {
+        // Given
+        String token = "123456";
+        when(jwtProvider.getUserId(token)).thenReturn(USER_ID);
+        when(bankAccountService.getAccountVersion(ACCOUNT_ID, USER_ID))
+                .thenReturn(Optional.of(ResourceVersion.of("4")));
+        when(bankAccountService.getAccountForUser(ACCOUNT_ID, USER_ID)).thenReturn(bankAccountResponse);
+        // When & Then
+        mockMvc.perform(get("/v1/accounts/" + ACCOUNT_ID)
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+        verify(bankAccountService).getAccountForUser(ACCOUNT_ID, USER_ID);
+    }
+
     @Test
     @DisplayName("Given valid update data, when PATCH /v1/accounts/{accountId}, then return 200 OK")
     void updateAccount() throws Exception {
-        // Given/When/Then
+        // Given
+        String token = "123456";
+        when(jwtProvider.getUserId(token)).thenReturn(USER_ID);
+        // When & Then
         mockMvc.perform(patch("/v1/accounts/" + ACCOUNT_ID)
                         .content(objectMapper.writeValueAsString(updateBankAccountRequest))
-                        .contentType(MediaType.APPLICATION_JSON))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + token))
                 .andExpect(status().isOk());
         verify(bankAccountService).updateAccount(eq(ACCOUNT_ID), any(UpdateBankAccountRequest.class));
     }
@@ -111,12 +175,37 @@ class BankAccountControllerTest {
     @Test
     @DisplayName("Given a valid accountId, when DELETE /v1/accounts/{accountId}, then the account is deleted and 200 OK is returned")
     void deleteAccount() throws Exception {
-        // Given/When/Then
-        mockMvc.perform(delete("/v1/accounts/" + ACCOUNT_ID))
+        // Given
+        String token = "123456";
+        when(jwtProvider.getUserId(token)).thenReturn(USER_ID);
+        // When & Then
+        mockMvc.perform(delete("/v1/accounts/" + ACCOUNT_ID)
+                        .header("Authorization", "Bearer " + token))
                 .andExpect(status().isOk());
         verify(bankAccountService).deleteAccount(ACCOUNT_ID);
     }
 
+    @Test
+    @DisplayName("Given no token, when DELETE /v1/accounts/{accountId}, then return 401 before reaching the controller")
+    void deleteAccount_missingToken() throws Exception {
+        // Given/When/Then
+        mockMvc.perform(delete("/v1/accounts/" + ACCOUNT_ID))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(bankAccountService);
+    }
+
+    @Test
+    @DisplayName("Given an invalid token, when GET /v1/accounts, then return 401 before reaching the controller")
+    void getAccountsForUser_invalidToken() throws Exception {
+        // Given
+        when(jwtProvider.getUserId("expired")).thenThrow(new RuntimeException("Invalid or expired token"));
+        // When & Then
+        mockMvc.perform(get("/v1/accounts")
+                        .header("Authorization", "Bearer expired"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(bankAccountService);
+    }
+
     @Test
     @DisplayName("Given a valid token, when GET /v1/accounts, then return 200 OK and accounts for user")
     void getAccountsForUser() throws Exception {
@@ -126,9 +215,24 @@ class BankAccountControllerTest {
         when(bankAccountService.getAccountsByUserId(USER_ID)).thenReturn(List.of(bankAccountResponse));
         // When & Then
         mockMvc.perform(get("/v1/accounts")
-                        .header("Authorization", token))
+                        .header("Authorization", "Bearer " + token))
                 .andExpect(status().isOk());
         verify(bankAccountService).getAccountsByUserId(USER_ID);
     }
 
+    @Test
+    @DisplayName("Given a matching If-None-Match, when GET /v1/accounts, then return 304 without listing the accounts")
+    void getAccountsForUser_notModified() throws Exception {
+        // Given
+        String token = "123456";
+        when(jwtProvider.getUserId(token)).thenReturn(USER_ID);
+        when(bankAccountService.getAccountsVersion(USER_ID)).thenReturn(Optional.of(ResourceVersion.of("2-5-100")));
+        // When & Then
+        mockMvc.perform(get("/v1/accounts")
+                        .header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2-5-100\""))
+                .andExpect(status().isNotModified());
+        verify(bankAccountService, never()).getAccountsByUserId(any());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.eaglebank.feature.account.repository;
+
+import com.eaglebank.feature.account.repository.domain.BankAccount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountCacheTest {
+    private final UUID accountId = UUID.randomUUID();
+    private final AtomicLong storedBalance = new AtomicLong(100);
+    private final AtomicInteger loads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private AccountCache accountCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accountCache = new AccountCache(meterRegistry, 100, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(accountCache);
+    }
+
+    @Test
+    @DisplayName("Given a cached account, when read again, then it is not loaded twice and each caller gets a copy")
+    void get_cachesAndCopies() {
+        BankAccount first = accountCache.get(accountId, this::load);
+        first.setBalance(-1);
+        BankAccount second = accountCache.get(accountId, this::load);
+
+        assertEquals(100, second.getBalance());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "accounts").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Given a row changed by another instance, when the ttl has passed, then the new row is loaded")
+    void get_expiresAfterTtl() throws InterruptedException {
+        AccountCache shortLived = new AccountCache(meterRegistry, 100, Duration.ofMillis(50));
+        shortLived.get(accountId, this::load);
+
+        storedBalance.set(50);
+        assertEquals(100, shortLived.get(accountId, this::load).getBalance());
+        Thread.sleep(100);
+
+        assertEquals(50, shortLived.get(accountId, this::load).getBalance());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Given a write outside a transaction, when the account is read, then the new row is loaded")
+    void invalidate_withoutTransaction() {
+        accountCache.get(accountId, this::load);
+
+        storedBalance.set(50);
+        accountCache.invalidate(accountId);
+
+        assertEquals(50, accountCache.get(accountId, this::load).getBalance());
+    }
+
+    @Test
+    @DisplayName("Given a write inside a transaction, when read before commit, then the cache is bypassed and cleared on completion")
+    void invalidate_insideTransaction() {
+        accountCache.get(accountId, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        storedBalance.set(50);
+        accountCache.invalidate(accountId);
+        assertEquals(50, accountCache.get(accountId, this::load).getBalance());
+        assertEquals(50, accountCache.get(accountId, this::load).getBalance());
+        assertEquals(3, loads.get());
+
+        // Another thread still sees the committed row and caches it while the transaction is open
+        storedBalance.set(100);
+        assertEquals(100, CompletableFuture.supplyAsync(() -> accountCache.get(accountId, this::load)).join()
+                .getBalance());
+
+        storedBalance.set(50);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertNull(TransactionSynchronizationManager.getResource(accountCache));
+        assertEquals(50, accountCache.get(accountId, this::load).getBalance());
+    }
+
+    @Test
+    @DisplayName("Given a write commits while a read is loading the old row, when the load finishes, then the old row is not cached")
+    void concurrentInvalidation_loadNotCached() {
+        Function<UUID, BankAccount> slowLoad = id -> {
+            BankAccount old = load(id);
+            storedBalance.set(50);
+            accountCache.invalidate(id);
+            return old;
+        };
+
+        assertEquals(100, accountCache.get(accountId, slowLoad).getBalance());
+        assertEquals(50, accountCache.get(accountId, this::load).getBalance());
+    }
+
+    private BankAccount load(UUID id) {
+        loads.incrementAndGet();
+        return BankAccount.builder().accountId(id).balance(storedBalance.get()).build();
+    }
+}
@@ -6,13 +6,15 @@ import com.eaglebank.feature.account.web.model.AccountType;
 import com.eaglebank.feature.account.web.model.BankAccountResponse;
 import com.eaglebank.feature.common.exception.IdentityException;
 import com.eaglebank.feature.common.exception.ResourceNotFoundException;
+import com.eaglebank.feature.common.web.ResourceVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Optional;
 import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -40,7 +42,7 @@ class BankAccountServiceTest {
                 .accountType(AccountType.PERSONAL)
                 .accountNumber("12345678")
                 .sortCode("12-34-56")
-                .balance(BigDecimal.TEN)
+                .balance(1000)
                 .currency("GBP")
                 .build();
     }
@@ -49,20 +51,22 @@ class BankAccountServiceTest {
     @DisplayName("Given a valid user and account, when getAccountForUser, then return account details")
     void getAccountForUser_success() {
         // Given
-        when(bankAccountRepository.getAccount(accountId)).thenReturn(bankAccount);
+        when(bankAccountRepository.getAccountForOwner(accountId, userId)).thenReturn(Optional.of(bankAccount));
         // When
         BankAccountResponse response = bankAccountService.getAccountForUser(accountId, userId);
         // Then
         assertNotNull(response);
         assertEquals(accountId, response.getAccountId());
         assertEquals(userId, response.getUserId());
+        verify(bankAccountRepository, never()).getAccountOwner(accountId);
     }
 
     @Test
     @DisplayName("Given a non-existent account, when getAccountForUser, then throw ResourceNotFoundException")
     void getAccountForUser_notFound() {
         // Given
-        when(bankAccountRepository.getAccount(accountId)).thenReturn(null);
+        when(bankAccountRepository.getAccountForOwner(accountId, userId)).thenReturn(Optional.empty());
+        when(bankAccountRepository.getAccountOwner(accountId)).thenReturn(Optional.empty());
         // When & Then
         assertThrows(ResourceNotFoundException.class, () ->
                 bankAccountService.getAccountForUser(accountId, userId));
@@ -72,14 +76,32 @@ class BankAccountServiceTest {
     @DisplayName("Given an account not owned by user, when getAccountForUser, then throw AccessDeniedException")
     void getAccountForUser_forbidden() {
         // Given
-        BankAccount otherAccount = BankAccount.builder()
-                .accountId(accountId)
-                .userId(otherUserId)
-                .build();
-        when(bankAccountRepository.getAccount(accountId)).thenReturn(otherAccount);
+        when(bankAccountRepository.getAccountForOwner(accountId, userId)).thenReturn(Optional.empty());
+        when(bankAccountRepository.getAccountOwner(accountId)).thenReturn(Optional.of(otherUserId));
         // When & Then
         assertThrows(IdentityException.class, () ->
                 bankAccountService.getAccountForUser(accountId, userId));
     }
-}
 
+    @Test
+    @DisplayName("Given an owned account, when getAccountVersion, then return the version of the row")
+    void getAccountVersion_owned() {
+        // Given
+        bankAccount.setVersion(4);
+        bankAccount.setUpdatedTimestamp(ZonedDateTime.parse("2025-01-01T10:00:00Z"));
+        when(bankAccountRepository.getAccountForOwner(accountId, userId)).thenReturn(Optional.of(bankAccount));
+        // When
+        Optional<ResourceVersion> version = bankAccountService.getAccountVersion(accountId, userId);
+        // Then
+        assertEquals(Optional.of(ResourceVersion.of("4")), version);
+    }
+
+    @Test
+    @DisplayName("Given an account not owned by user, when getAccountVersion, then return no version")
+    void getAccountVersion_notOwned() {
+        // Given
+        when(bankAccountRepository.getAccountForOwner(accountId, userId)).thenReturn(Optional.empty());
+        // When & Then
+        assertTrue(bankAccountService.getAccountVersion(accountId, userId).isEmpty());
+    }
+}
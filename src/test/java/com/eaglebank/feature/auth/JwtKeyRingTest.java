@@ -0,0 +1,51 @@
+package com.eaglebank.feature.auth;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.security.KeyStore;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    @Test
+    @DisplayName("Given a keystore with two secret keys, when loaded, then both are found by alias and the active one signs")
+    void load_keysByAlias() throws Exception {
+        SecretKey first = Jwts.SIG.HS256.key().build();
+        SecretKey second = Jwts.SIG.HS256.key().build();
+
+        JwtKeyRing keyRing = JwtKeyRing.load(keystore(Map.of("2025-01", first, "2025-02", second)), "PKCS12", PASSWORD, "2025-02");
+
+        assertEquals("2025-02", keyRing.getActiveKeyId());
+        assertArrayEquals(second.getEncoded(), keyRing.getActiveKey().getEncoded());
+        assertArrayEquals(first.getEncoded(), keyRing.getKey("2025-01").getEncoded());
+        assertNull(keyRing.getKey("2024-12"));
+        assertNull(keyRing.getKey(null));
+    }
+
+    @Test
+    @DisplayName("Given an active key id missing from the keystore, when loaded, then startup fails")
+    void load_missingActiveKey() {
+        SecretKey key = Jwts.SIG.HS256.key().build();
+        assertThrows(IllegalArgumentException.class, () ->
+                JwtKeyRing.load(keystore(Map.of("2025-01", key)), "PKCS12", PASSWORD, "2025-02"));
+    }
+
+    private static ByteArrayInputStream keystore(Map<String, SecretKey> keys) throws Exception {
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        store.load(null, PASSWORD);
+        for (Map.Entry<String, SecretKey> key : keys.entrySet()) {
+            store.setEntry(key.getKey(), new KeyStore.SecretKeyEntry(key.getValue()), new KeyStore.PasswordProtection(PASSWORD));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.store(out, PASSWORD);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+}
@@ -0,0 +1,138 @@
+package com.eaglebank.feature.auth;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtProviderTest {
+    private SimpleMeterRegistry meterRegistry;
+    private JwtProvider jwtProvider;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtProvider = provider(JwtKeyRing.ephemeral(), meterRegistry, Duration.ofMinutes(5));
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Given a token checked by the filter, when the controller reads the user, then the signature is checked once")
+    void validateThenGetUserId_verifiesOnce() {
+        String token = jwtProvider.generateToken(userId);
+
+        assertTrue(jwtProvider.validateToken(token));
+        assertEquals(userId, jwtProvider.getUserId(token));
+        assertEquals(userId, jwtProvider.getUserId(token));
+
+        assertEquals(1, verifications());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "verified-tokens").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Given a tampered token, when checked, then it is rejected every time and never cached")
+    void tamperedToken_rejected() {
+        String token = jwtProvider.generateToken(userId);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertFalse(jwtProvider.validateToken(tampered));
+        assertFalse(jwtProvider.validateToken(tampered));
+        assertThrows(RuntimeException.class, () -> jwtProvider.getUserId(tampered));
+        assertEquals(3, verifications());
+    }
+
+    @Test
+    @DisplayName("Given a token signed with another key, when checked, then it is rejected")
+    void foreignToken_rejected() {
+        String foreign = provider(JwtKeyRing.ephemeral(), new SimpleMeterRegistry(), Duration.ofMinutes(5))
+                .generateToken(userId);
+        assertFalse(jwtProvider.validateToken(foreign));
+    }
+
+    @Test
+    @DisplayName("Given a zero cache lifetime, when a token is reused, then it is verified again")
+    void zeroTtl_verifiesEveryTime() {
+        jwtProvider = provider(JwtKeyRing.ephemeral(), meterRegistry, Duration.ZERO);
+        String token = jwtProvider.generateToken(userId);
+
+        assertEquals(userId, jwtProvider.getUserId(token));
+        assertEquals(userId, jwtProvider.getUserId(token));
+        assertEquals(2, verifications());
+    }
+
+    @Test
+    @DisplayName("Given a key rotation, when the new key becomes active, then tokens signed with the old key still verify")
+    void rotation_oldAndNewKeysVerify() {
+        SecretKey oldKey = Jwts.SIG.HS256.key().build();
+        SecretKey newKey = Jwts.SIG.HS256.key().build();
+        String oldToken = provider(new JwtKeyRing("k1", Map.of("k1", oldKey)), new SimpleMeterRegistry(),
+                Duration.ofMinutes(5)).generateToken(userId);
+        JwtProvider rotated = provider(new JwtKeyRing("k2", Map.of("k1", oldKey, "k2", newKey)), meterRegistry,
+                Duration.ofMinutes(5));
+        String newToken = rotated.generateToken(userId);
+
+        assertEquals("k2", Jwts.parser().verifyWith(newKey).build().parseSignedClaims(newToken).getHeader().getKeyId());
+        assertEquals(userId, rotated.getUserId(oldToken));
+        assertEquals(userId, rotated.getUserId(newToken));
+    }
+
+    @Test
+    @DisplayName("Given a token whose key was dropped from the ring, when checked, then it is rejected")
+    void retiredKey_rejected() {
+        SecretKey key = Jwts.SIG.HS256.key().build();
+        String token = provider(new JwtKeyRing("k1", Map.of("k1", key)), new SimpleMeterRegistry(),
+                Duration.ofMinutes(5)).generateToken(userId);
+        JwtProvider retired = provider(new JwtKeyRing("k2", Map.of("k2", Jwts.SIG.HS256.key().build())), meterRegistry,
+                Duration.ofMinutes(5));
+
+        assertFalse(retired.validateToken(token));
+    }
+
+    @Test
+    @DisplayName("Given a cached token, when it is revoked, then it is rejected and other tokens still verify")
+    void revokedToken_rejectedEvenWhenCached() {
+        String token = jwtProvider.generateToken(userId);
+        String other = jwtProvider.generateToken(userId);
+        assertTrue(jwtProvider.validateToken(token));
+
+        jwtProvider.revoke(token);
+
+        assertFalse(jwtProvider.validateToken(token));
+        assertThrows(RuntimeException.class, () -> jwtProvider.getUserId(token));
+        assertEquals(userId, jwtProvider.getUserId(other));
+    }
+
+    @Test
+    @DisplayName("Given a new token, when issued, then it carries an id and expires after the access token lifetime")
+    void generateToken_shortLivedWithId() {
+        SecretKey key = Jwts.SIG.HS256.key().build();
+        Claims claims = Jwts.parser().verifyWith(key).build()
+                .parseSignedClaims(provider(new JwtKeyRing("k1", Map.of("k1", key)), meterRegistry, Duration.ofMinutes(5))
+                        .generateToken(userId))
+                .getPayload();
+
+        assertNotNull(claims.getId());
+        assertEquals(Duration.ofMinutes(5).toMillis(),
+                claims.getExpiration().getTime() - claims.getIssuedAt().getTime());
+    }
+
+    private static JwtProvider provider(JwtKeyRing keyRing, SimpleMeterRegistry meterRegistry, Duration cacheTtl) {
+        return new JwtProvider(keyRing, new RevokedTokens(meterRegistry), meterRegistry, Duration.ofMinutes(5), 100,
+                cacheTtl);
+    }
+
+    private long verifications() {
+        return meterRegistry.get("eaglebank.auth.token.verify").timer().count();
+    }
+}
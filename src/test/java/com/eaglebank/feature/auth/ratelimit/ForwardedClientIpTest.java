@@ -0,0 +1,51 @@
+package com.eaglebank.feature.auth.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs against a real server, since the client address is resolved by Tomcat before any filter sees the request.
+ * The test client connects from loopback, which stands in for the load balancer.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:forwarded-client-ip",
+        "eaglebank.rate-limit.login.capacity=2",
+        "eaglebank.rate-limit.login.refill-period=1h"})
+class ForwardedClientIpTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Given logins through the proxy, when one client uses up its bucket, then other clients can still log in")
+    void loginLimit_keyedOnForwardedClient() {
+        assertEquals(HttpStatus.UNAUTHORIZED, login("203.0.113.1"));
+        assertEquals(HttpStatus.UNAUTHORIZED, login("203.0.113.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("203.0.113.1"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, login("203.0.113.2"));
+        assertEquals(HttpStatus.UNAUTHORIZED, login("198.51.100.7, 10.0.0.5"));
+    }
+
+    // A fresh email every time, so only the per-IP bucket can run out
+    private HttpStatus login(String forwardedFor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", forwardedFor);
+        Map<String, String> body = Map.of("email", UUID.randomUUID() + "@test.com", "password", "wrong");
+        return HttpStatus.valueOf(restTemplate.postForEntity("/v1/auth/login", new HttpEntity<>(body, headers),
+                String.class).getStatusCode().value());
+    }
+}
@@ -0,0 +1,89 @@
+package com.eaglebank.feature.auth.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    @DisplayName("Given a full bucket, when the burst is used up, then the next attempt waits one refill period")
+    void burstThenRejected() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, Duration.ofSeconds(10), 100, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Duration.ZERO, limiter.tryAcquire("ip:1.2.3.4"));
+        }
+        assertEquals(Duration.ofSeconds(10), limiter.tryAcquire("ip:1.2.3.4"));
+        assertEquals(Duration.ZERO, limiter.tryAcquire("ip:5.6.7.8"));
+    }
+
+    @Test
+    @DisplayName("Given an empty bucket, when a refill period passes, then exactly one more attempt is allowed")
+    void refillsOverTime() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, Duration.ofSeconds(10), 100, now::get);
+        limiter.tryAcquire("email:a@test.com");
+        limiter.tryAcquire("email:a@test.com");
+
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertEquals(Duration.ofSeconds(6), limiter.tryAcquire("email:a@test.com"));
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertEquals(Duration.ZERO, limiter.tryAcquire("email:a@test.com"));
+        assertEquals(Duration.ofSeconds(10), limiter.tryAcquire("email:a@test.com"));
+    }
+
+    @Test
+    @DisplayName("Given a bucket idle long enough to refill, when the map is cleaned up, then it is evicted")
+    void idleBucketsEvicted() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, Duration.ofSeconds(10), 100, now::get);
+        limiter.tryAcquire("ip:1.2.3.4");
+
+        now.addAndGet(Duration.ofSeconds(21).toNanos());
+        limiter.buckets().cleanUp();
+
+        assertEquals(0, limiter.buckets().estimatedSize());
+    }
+
+    @Test
+    @DisplayName("Given many threads on one key, when they race, then exactly the capacity is granted")
+    void concurrentAttempts_grantExactlyCapacity() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(50, Duration.ofHours(1), 100, now::get);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> attempts = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 50; j++) {
+                        if (limiter.tryAcquire("ip:1.2.3.4").isZero()) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(50, granted.get());
+    }
+}
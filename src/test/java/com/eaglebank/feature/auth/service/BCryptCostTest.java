@@ -0,0 +1,40 @@
+package com.eaglebank.feature.auth.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptCostTest {
+
+    @Test
+    @DisplayName("Given BCrypt hashes, when the cost is read, then it matches the encoder strength")
+    void of_readsCost() {
+        assertEquals(4, BCryptCost.of(new BCryptPasswordEncoder(4).encode("secret")));
+        assertEquals(5, BCryptCost.of(new BCryptPasswordEncoder(5).encode("secret")));
+        assertEquals(-1, BCryptCost.of("plain-text"));
+        assertEquals(-1, BCryptCost.of(null));
+    }
+
+    @Test
+    @DisplayName("Given a generous target, when calibrating, then the highest cost in range is chosen")
+    void calibrate_generousTarget() {
+        assertEquals(6, BCryptCost.calibrate(Duration.ofSeconds(30), 4, 6));
+    }
+
+    @Test
+    @DisplayName("Given a target no cost can meet, when calibrating, then the minimum cost is kept")
+    void calibrate_impossibleTarget() {
+        assertEquals(5, BCryptCost.calibrate(Duration.ZERO, 5, 8));
+    }
+
+    @Test
+    @DisplayName("Given a range outside what BCrypt supports, when calibrating, then it is rejected")
+    void calibrate_invalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> BCryptCost.calibrate(Duration.ofMillis(100), 3, 10));
+        assertThrows(IllegalArgumentException.class, () -> BCryptCost.calibrate(Duration.ofMillis(100), 12, 10));
+    }
+}
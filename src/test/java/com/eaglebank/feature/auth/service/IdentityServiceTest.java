@@ -0,0 +1,160 @@
+package com.eaglebank.feature.auth.service;
+
+import com.eaglebank.feature.auth.repository.IdentityRepository;
+import com.eaglebank.feature.auth.repository.domain.Identity;
+import com.eaglebank.feature.auth.web.model.LoginRequest;
+import com.eaglebank.feature.auth.web.model.TokenResponse;
+import com.eaglebank.feature.common.exception.AuthenticationFailedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdentityServiceTest {
+    private final UUID userId = UUID.randomUUID();
+    private final UUID identityId = UUID.randomUUID();
+    private IdentityRepository identityRepository;
+    private TokenService tokenService;
+    private RegisteredEmails registeredEmails;
+    private PasswordHasher passwordHasher;
+    private ExecutorService databaseExecutor;
+    private IdentityService identityService;
+
+    @BeforeEach
+    void setUp() {
+        identityRepository = mock(IdentityRepository.class);
+        tokenService = mock(TokenService.class);
+        registeredEmails = mock(RegisteredEmails.class);
+        when(registeredEmails.mightContain(anyString())).thenReturn(true);
+        when(tokenService.issueTokens(userId)).thenReturn(TokenResponse.builder().token("token").build());
+        passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(5), new SimpleMeterRegistry(), 1, 4,
+                Duration.ofSeconds(1));
+        databaseExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("database-"));
+        identityService = new IdentityService(identityRepository, tokenService, passwordHasher, registeredEmails,
+                databaseExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+        databaseExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Given a matching password, when logging in, then the tokens are issued off the hashing pool")
+    void login_tokensIssuedOffHashingPool() {
+        storedHash(new BCryptPasswordEncoder(5).encode("secret"));
+        AtomicReference<String> issuingThread = new AtomicReference<>();
+        when(tokenService.issueTokens(userId)).thenAnswer(invocation -> {
+            issuingThread.set(Thread.currentThread().getName());
+            return TokenResponse.builder().token("token").build();
+        });
+
+        assertEquals("token", identityService.login(login("secret")).join().getToken());
+        assertTrue(issuingThread.get().startsWith("database-"), "tokens issued on " + issuingThread.get());
+    }
+
+    @Test
+    @DisplayName("Given hashing fails, when encoding a new password, then the cause is thrown unwrapped")
+    void encodePassword_hashingFailure_unwrapped() {
+        assertThrows(IllegalArgumentException.class, () -> identityService.encodePassword(null));
+        verifyNoInteractions(identityRepository);
+    }
+
+    @Test
+    @DisplayName("Given an encoded password, when creating an identity, then it is stored as given")
+    void createIdentity_storesEncodedPassword() {
+        String encoded = identityService.encodePassword("secret");
+
+        identityService.createIdentity(userId, Identity.builder().email("user@test.com").password(encoded).build());
+
+        verify(identityRepository).createIdentity(userId, "user@test.com", encoded);
+        verify(registeredEmails).add("user@test.com");
+    }
+
+    @Test
+    @DisplayName("Given a hash at the current cost, when logging in, then the stored hash is left alone")
+    void login_currentCost_noRehash() {
+        storedHash(new BCryptPasswordEncoder(5).encode("secret"));
+
+        assertEquals("token", identityService.login(login("secret")).join().getToken());
+        verify(identityRepository, never()).updatePassword(any(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Given a hash at a lower cost, when logging in, then it is replaced with one at the current cost")
+    void login_lowerCost_rehashed() {
+        String oldHash = new BCryptPasswordEncoder(4).encode("secret");
+        storedHash(oldHash);
+
+        assertEquals("token", identityService.login(login("secret")).join().getToken());
+
+        verify(identityRepository, timeout(TimeUnit.SECONDS.toMillis(5)))
+                .updatePassword(eq(identityId), eq(oldHash), argThat(hash ->
+                        BCryptCost.of(hash) == 5 && new BCryptPasswordEncoder().matches("secret", hash)));
+    }
+
+    @Test
+    @DisplayName("Given a hash at a higher cost, when logging in, then the stored hash is left alone")
+    void login_higherCost_noRehash() {
+        storedHash(new BCryptPasswordEncoder(6).encode("secret"));
+
+        assertEquals("token", identityService.login(login("secret")).join().getToken());
+        verify(identityRepository, never()).updatePassword(any(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Given a wrong password at another cost, when logging in, then nothing is rehashed")
+    void login_wrongPassword_noRehash() {
+        storedHash(new BCryptPasswordEncoder(4).encode("secret"));
+
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> identityService.login(login("wrong")).join());
+
+        assertInstanceOf(AuthenticationFailedException.class, failure.getCause());
+        verify(identityRepository, never()).updatePassword(any(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Given an email the filter rules out, when logging in, then the database is not queried")
+    void login_unknownEmail_noQuery() {
+        when(registeredEmails.mightContain("nobody@test.com")).thenReturn(false);
+
+        CompletionException failure = assertThrows(CompletionException.class, () -> identityService.login(
+                LoginRequest.builder().email("nobody@test.com").password("secret").build()).join());
+
+        assertInstanceOf(AuthenticationFailedException.class, failure.getCause());
+        verifyNoInteractions(identityRepository);
+    }
+
+    private void storedHash(String hash) {
+        when(identityRepository.getIdentityByEmail("user@test.com")).thenReturn(List.of(Identity.builder()
+                .identityId(identityId)
+                .email("user@test.com")
+                .password(hash)
+                .userId(userId)
+                .build()));
+    }
+
+    private static LoginRequest login(String password) {
+        return LoginRequest.builder().email("user@test.com").password(password).build();
+    }
+}
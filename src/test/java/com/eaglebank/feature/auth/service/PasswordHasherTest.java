@@ -0,0 +1,81 @@
+package com.eaglebank.feature.auth.service;
+
+import com.eaglebank.feature.common.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PasswordHasherTest {
+    private SimpleMeterRegistry meterRegistry;
+    private BCryptPasswordEncoder encoder;
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = mock(BCryptPasswordEncoder.class);
+        passwordHasher = new PasswordHasher(encoder, meterRegistry, 1, 1, Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Given a password, when encoded and checked, then the work runs on the hashing pool")
+    void encodeAndMatches_runOnPool() throws Exception {
+        when(encoder.encode(any())).thenAnswer(invocation -> Thread.currentThread().getName());
+        when(encoder.matches("secret", "hash")).thenReturn(true);
+
+        assertTrue(passwordHasher.encode("secret").get(5, TimeUnit.SECONDS).startsWith("password-hasher-"));
+        assertTrue(passwordHasher.matches("secret", "hash").get(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("eaglebank.auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("eaglebank.auth.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("Given the pool and its queue are full, when more work arrives, then it is refused with a retry delay")
+    void queueFull_rejected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(encoder.matches(any(), any())).thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Boolean> running = passwordHasher.matches("a", "hash");
+        CompletableFuture<Boolean> queued = passwordHasher.matches("b", "hash");
+        ServiceBusyException busy = assertThrows(ServiceBusyException.class, () -> passwordHasher.matches("c", "hash"));
+
+        assertEquals(Duration.ofSeconds(2), busy.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("eaglebank.auth.password.rejected").counter().count());
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        verify(encoder, times(2)).matches(any(), any());
+    }
+
+    @Test
+    @DisplayName("Given hashes of several costs, when checked for rehash, then only those with a lower cost need it")
+    void needsRehash_onlyLowerCost() {
+        PasswordHasher cost5 = new PasswordHasher(new BCryptPasswordEncoder(5), meterRegistry, 1, 1,
+                Duration.ofSeconds(2));
+        try {
+            assertFalse(cost5.needsRehash(new BCryptPasswordEncoder(5).encode("secret")));
+            assertTrue(cost5.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+            assertFalse(cost5.needsRehash(new BCryptPasswordEncoder(6).encode("secret")));
+            assertFalse(cost5.needsRehash("not-a-bcrypt-hash"));
+        } finally {
+            cost5.shutdown();
+        }
+    }
+}
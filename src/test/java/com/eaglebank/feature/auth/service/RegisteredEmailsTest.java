@@ -0,0 +1,94 @@
+package com.eaglebank.feature.auth.service;
+
+import com.eaglebank.feature.auth.repository.IdentityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RegisteredEmailsTest {
+    private SimpleMeterRegistry meterRegistry;
+    private IdentityRepository identityRepository;
+    private List<String> storedEmails;
+    private RegisteredEmails registeredEmails;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        identityRepository = mock(IdentityRepository.class);
+        storedEmails = new ArrayList<>(List.of("alice@example.com", "bob@example.com"));
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(0);
+            List.copyOf(storedEmails).forEach(consumer);
+            return null;
+        }).when(identityRepository).forEachEmail(any());
+        registeredEmails = new RegisteredEmails(identityRepository, meterRegistry, 1000, 0.01, Duration.ofHours(1));
+        registeredEmails.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registeredEmails.shutdown();
+    }
+
+    @Test
+    @DisplayName("Given emails in the identity table, when the filter loads, then they are possibly present and others mostly absent")
+    void load_containsStoredEmails() {
+        assertTrue(registeredEmails.mightContain("alice@example.com"));
+        assertTrue(registeredEmails.mightContain("bob@example.com"));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (registeredEmails.mightContain("unknown-" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 50, "false positives: " + falsePositives);
+        assertEquals(1000 - falsePositives,
+                meterRegistry.get("eaglebank.auth.email-filter.lookups").tag("result", "absent").counter().count());
+    }
+
+    @Test
+    @DisplayName("Given a newly created identity, when its email is looked up, then it is possibly present without a reload")
+    void add_visibleImmediately() {
+        registeredEmails.add("carol@example.com");
+
+        assertTrue(registeredEmails.mightContain("carol@example.com"));
+        verify(identityRepository, times(1)).forEachEmail(any());
+    }
+
+    @Test
+    @DisplayName("Given a deleted identity, when the filter is rebuilt, then its email is dropped")
+    void rebuild_dropsDeletedEmails() {
+        storedEmails.remove("bob@example.com");
+
+        registeredEmails.rebuild();
+
+        assertTrue(registeredEmails.mightContain("alice@example.com"));
+        assertFalse(registeredEmails.mightContain("bob@example.com"));
+    }
+
+    @Test
+    @DisplayName("Given an identity added but not yet visible in the table, when the filter is rebuilt, then it is kept")
+    void rebuild_keepsUncommittedAdds() {
+        registeredEmails.add("dave@example.com");
+
+        registeredEmails.rebuild();
+        assertTrue(registeredEmails.mightContain("dave@example.com"));
+
+        storedEmails.add("dave@example.com");
+        registeredEmails.rebuild();
+        registeredEmails.rebuild();
+        assertTrue(registeredEmails.mightContain("dave@example.com"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.eaglebank.feature.auth.service;
+
+import com.eaglebank.feature.auth.JwtProvider;
+import com.eaglebank.feature.auth.repository.RefreshTokenRepository;
+import com.eaglebank.feature.auth.repository.domain.RefreshToken;
+import com.eaglebank.feature.auth.web.model.TokenResponse;
+import com.eaglebank.feature.common.exception.AuthenticationFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TokenServiceTest {
+    private JwtProvider jwtProvider;
+    private RefreshTokenRepository refreshTokenRepository;
+    private PlatformTransactionManager transactionManager;
+    private TokenService tokenService;
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        jwtProvider = mock(JwtProvider.class);
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(jwtProvider.generateToken(userId)).thenReturn("access");
+        when(jwtProvider.getAccessTokenTtl()).thenReturn(Duration.ofMinutes(5));
+        tokenService = new TokenService(jwtProvider, refreshTokenRepository, Duration.ofDays(14),
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("Given a user, when tokens are issued, then only the hash of the refresh token is stored")
+    void issueTokens_storesHash() {
+        TokenResponse tokens = tokenService.issueTokens(userId);
+
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).createRefreshToken(stored.capture());
+        assertEquals("access", tokens.getToken());
+        assertEquals(300, tokens.getExpiresIn());
+        assertNotNull(tokens.getRefreshToken());
+        assertNotEquals(tokens.getRefreshToken(), stored.getValue().getTokenHash());
+        assertEquals(64, stored.getValue().getTokenHash().length());
+        assertEquals(userId, stored.getValue().getUserId());
+    }
+
+    @Test
+    @DisplayName("Given a stored refresh token, when exchanged, then it is consumed and a new pair is issued")
+    void refresh_rotates() {
+        String issued = tokenService.issueTokens(userId).getRefreshToken();
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).createRefreshToken(stored.capture());
+        when(refreshTokenRepository.consumeRefreshToken(stored.getValue().getTokenHash()))
+                .thenReturn(Optional.of(stored.getValue()));
+
+        TokenResponse refreshed = tokenService.refresh(issued);
+
+        assertEquals("access", refreshed.getToken());
+        assertNotEquals(issued, refreshed.getRefreshToken());
+        verify(refreshTokenRepository, times(2)).createRefreshToken(any());
+    }
+
+    @Test
+    @DisplayName("Given a refresh token, when issuing the new pair fails, then consuming the old one is rolled back")
+    void refresh_issueFails_rollsBack() {
+        when(refreshTokenRepository.consumeRefreshToken(anyString())).thenReturn(Optional.of(RefreshToken.builder()
+                .userId(userId)
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build()));
+        doThrow(new IllegalStateException("database unavailable")).when(refreshTokenRepository).createRefreshToken(any());
+
+        assertThrows(IllegalStateException.class, () -> tokenService.refresh("refresh"));
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    @DisplayName("Given an unknown or already used refresh token, when exchanged, then it is refused")
+    void refresh_unknown() {
+        when(refreshTokenRepository.consumeRefreshToken(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(AuthenticationFailedException.class, () -> tokenService.refresh("nope"));
+        verify(refreshTokenRepository, never()).createRefreshToken(any());
+    }
+
+    @Test
+    @DisplayName("Given an expired refresh token, when exchanged, then it is refused")
+    void refresh_expired() {
+        when(refreshTokenRepository.consumeRefreshToken(anyString())).thenReturn(Optional.of(RefreshToken.builder()
+                .userId(userId)
+                .expiresAt(Instant.now().minusSeconds(1))
+                .build()));
+
+        assertThrows(AuthenticationFailedException.class, () -> tokenService.refresh("old"));
+        verify(refreshTokenRepository, never()).createRefreshToken(any());
+    }
+
+    @Test
+    @DisplayName("Given a logout, when both tokens are given, then the access token is revoked and the refresh token deleted")
+    void logout_revokesBoth() {
+        tokenService.logout("access", "refresh");
+
+        verify(jwtProvider).revoke("access");
+        verify(refreshTokenRepository).consumeRefreshToken(anyString());
+    }
+}
@@ -0,0 +1,161 @@
+package com.eaglebank.feature.auth.web;
+
+import com.eaglebank.feature.auth.JwtProvider;
+import com.eaglebank.feature.auth.ratelimit.AuthRateLimits;
+import com.eaglebank.feature.auth.service.IdentityService;
+import com.eaglebank.feature.auth.service.TokenService;
+import com.eaglebank.feature.auth.web.model.LoginRequest;
+import com.eaglebank.feature.auth.web.model.RefreshTokenRequest;
+import com.eaglebank.feature.auth.web.model.TokenResponse;
+import com.eaglebank.feature.common.exception.AuthenticationFailedException;
+import com.eaglebank.feature.common.exception.ServiceBusyException;
+import com.eaglebank.feature.common.exception.TooManyRequestsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AuthController.class)
+class AuthControllerTest {
+    @MockitoBean
+    private JwtProvider jwtProvider;
+    @MockitoBean
+    private IdentityService identityService;
+    @MockitoBean
+    private TokenService tokenService;
+    @MockitoBean
+    private AuthRateLimits authRateLimits;
+    @Autowired
+    private MockMvc mockMvc;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoginRequest loginRequest = LoginRequest.builder().email("user@test.com").password("secret").build();
+
+    @Test
+    @DisplayName("Given valid credentials, when POST /v1/auth/login, then the token is returned once the check completes")
+    void login_success() throws Exception {
+        when(identityService.login(any(LoginRequest.class))).thenReturn(CompletableFuture.completedFuture(tokens()));
+
+        MvcResult result = mockMvc.perform(login())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("token-1"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh-1"))
+                .andExpect(jsonPath("$.expiresIn").value(300));
+    }
+
+    @Test
+    @DisplayName("Given invalid credentials, when POST /v1/auth/login, then no token is returned")
+    void login_invalidCredentials() throws Exception {
+        when(identityService.login(any(LoginRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new AuthenticationFailedException("Invalid email or password")));
+
+        MvcResult result = mockMvc.perform(login())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.token").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Given the hashing queue is full, when POST /v1/auth/login, then return 503 with Retry-After")
+    void login_busy() throws Exception {
+        when(identityService.login(any(LoginRequest.class)))
+                .thenThrow(new ServiceBusyException("Too many authentication requests, please retry shortly", Duration.ofSeconds(2)));
+
+        mockMvc.perform(login())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    @DisplayName("Given too many attempts for an email, when POST /v1/auth/login, then return 429 without checking the password")
+    void login_rateLimited() throws Exception {
+        doThrow(new TooManyRequestsException("Too many attempts, please retry later", Duration.ofSeconds(6)))
+                .when(authRateLimits).checkLogin(anyString(), eq("user@test.com"));
+
+        mockMvc.perform(login())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "6"));
+        verifyNoInteractions(identityService);
+    }
+
+    @Test
+    @DisplayName("Given a refresh token, when POST /v1/auth/refresh without an access token, then a new pair is returned")
+    void refresh_success() throws Exception {
+        when(tokenService.refresh("refresh-0")).thenReturn(tokens());
+
+        mockMvc.perform(post("/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refresh-0"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("token-1"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh-1"));
+    }
+
+    @Test
+    @DisplayName("Given a used or unknown refresh token, when POST /v1/auth/refresh, then no tokens are returned")
+    void refresh_invalid() throws Exception {
+        when(tokenService.refresh("refresh-0")).thenThrow(new AuthenticationFailedException("Invalid or expired refresh token"));
+
+        mockMvc.perform(post("/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refresh-0"))))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.token").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Given an authenticated user, when POST /v1/auth/logout, then both tokens are revoked")
+    void logout_revokesTokens() throws Exception {
+        when(jwtProvider.getUserId("token-1")).thenReturn(UUID.randomUUID());
+
+        mockMvc.perform(post("/v1/auth/logout")
+                        .header("Authorization", "Bearer token-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refresh-1"))))
+                .andExpect(status().isNoContent());
+        verify(tokenService).logout("token-1", "refresh-1");
+    }
+
+    @Test
+    @DisplayName("Given no access token, when POST /v1/auth/logout, then return 401")
+    void logout_unauthenticated() throws Exception {
+        mockMvc.perform(post("/v1/auth/logout"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(tokenService);
+    }
+
+    private static TokenResponse tokens() {
+        return TokenResponse.builder().token("token-1").refreshToken("refresh-1").expiresIn(300).build();
+    }
+
+    private RequestBuilder login() throws Exception {
+        return post("/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest));
+    }
+}
@@ -0,0 +1,44 @@
+package com.eaglebank.feature.common.money;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinorUnitsTest {
+
+    @Test
+    @DisplayName("Given a decimal amount, when converted, then it becomes whole pence")
+    void of_convertsToPence() {
+        assertEquals(10050, MinorUnits.of(new BigDecimal("100.50")));
+        assertEquals(10050, MinorUnits.of(new BigDecimal("100.5")));
+        assertEquals(100, MinorUnits.of(BigDecimal.ONE));
+        assertEquals(-1, MinorUnits.of(new BigDecimal("-0.01")));
+    }
+
+    @Test
+    @DisplayName("Given fractions of a penny, when converted, then the amount is rejected rather than rounded")
+    void of_rejectsSubPenny() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> MinorUnits.of(new BigDecimal("0.001")));
+        assertEquals("Amount must have at most 2 decimal places", e.getMessage());
+        assertEquals(100, MinorUnits.of(new BigDecimal("1.0000")));
+    }
+
+    @Test
+    @DisplayName("Given more pence than a long holds, when converted, then the amount is rejected as too large")
+    void of_rejectsOverflow() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> MinorUnits.of(new BigDecimal("1e30")));
+        assertEquals("Amount is too large", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> MinorUnits.of(new BigDecimal("92233720368547758.08")));
+        assertEquals(Long.MAX_VALUE, MinorUnits.of(new BigDecimal("92233720368547758.07")));
+    }
+
+    @Test
+    @DisplayName("Given pence, when converted back, then the decimal has the currency scale")
+    void toDecimal_usesCurrencyScale() {
+        assertEquals(new BigDecimal("100.50"), MinorUnits.toDecimal(10050));
+        assertEquals(new BigDecimal("0.00"), MinorUnits.toDecimal(0));
+    }
+}
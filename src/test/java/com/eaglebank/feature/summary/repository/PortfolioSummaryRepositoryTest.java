@@ -0,0 +1,98 @@
+package com.eaglebank.feature.summary.repository;
+
+import com.eaglebank.feature.summary.repository.domain.AccountHistory;
+import com.eaglebank.feature.summary.repository.domain.PortfolioSummary;
+import com.eaglebank.feature.transaction.domain.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest
+@Import(PortfolioSummaryRepository.class)
+class PortfolioSummaryRepositoryTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PortfolioSummaryRepository portfolioSummaryRepository;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = createUser();
+    }
+
+    @Test
+    @DisplayName("Given accounts with history, when summarised, then each has its latest rows newest first and totals are per currency")
+    void getPortfolioSummary() {
+        UUID current = createAccount(userId, "GBP", "2025-01-01 09:00:00", 4);
+        UUID savings = createAccount(userId, "GBP", "2025-01-01 10:00:00", 1);
+        UUID travel = createAccount(userId, "EUR", "2025-01-01 11:00:00", 0);
+        createAccount(createUser(), "GBP", "2025-01-01 12:00:00", 3);
+
+        PortfolioSummary summary = portfolioSummaryRepository.getPortfolioSummary(userId, 3);
+
+        assertEquals(Map.of("GBP", 500L, "EUR", 0L), summary.totalsByCurrency());
+        assertEquals(List.of(current, savings, travel),
+                summary.accounts().stream().map(history -> history.account().getAccountId()).toList());
+        assertEquals(List.of(4L, 3L, 2L), sequenceNumbers(summary.accounts().get(0)));
+        assertEquals(400L, summary.accounts().get(0).account().getBalance());
+        assertEquals(List.of(1L), sequenceNumbers(summary.accounts().get(1)));
+        assertTrue(summary.accounts().get(2).latestTransactions().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Given no transactions requested, when summarised, then accounts and totals come back without history")
+    void getPortfolioSummary_noTransactions() {
+        createAccount(userId, "GBP", "2025-01-01 09:00:00", 2);
+
+        PortfolioSummary summary = portfolioSummaryRepository.getPortfolioSummary(userId, 0);
+
+        assertEquals(Map.of("GBP", 200L), summary.totalsByCurrency());
+        assertEquals(1, summary.accounts().size());
+        assertTrue(summary.accounts().getFirst().latestTransactions().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Given a user without accounts, when summarised, then the summary is empty")
+    void getPortfolioSummary_noAccounts() {
+        PortfolioSummary summary = portfolioSummaryRepository.getPortfolioSummary(userId, 5);
+
+        assertTrue(summary.totalsByCurrency().isEmpty());
+        assertTrue(summary.accounts().isEmpty());
+    }
+
+    private UUID createUser() {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)", id, "Test", id + "@test.com");
+        return id;
+    }
+
+    // Posts `postings` deposits of 100 in sequence, leaving the balance at 100 per posting
+    private UUID createAccount(UUID ownerId, String currency, String createdAt, int postings) {
+        UUID accountId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO bank_account (account_id, name, account_type, account_number, sort_code, " +
+                        "balance, currency, last_sequence_number, user_id, created_timestamp) " +
+                        "VALUES (?, 'Account', 'PERSONAL', ?, '10-10-10', ?, ?, ?, ?, TIMESTAMP '" + createdAt + "')",
+                accountId, accountId.toString().substring(0, 8), 100L * postings, currency, postings, ownerId);
+        for (int sequence = 1; sequence <= postings; sequence++) {
+            jdbcTemplate.update("INSERT INTO transaction (transaction_id, amount, type, timestamp, account_id, " +
+                            "balance_after, sequence_number) VALUES (?, 100, 'DEPOSIT', CURRENT_TIMESTAMP, ?, ?, ?)",
+                    UUID.randomUUID(), accountId, 100L * sequence, sequence);
+        }
+        return accountId;
+    }
+
+    private static List<Long> sequenceNumbers(AccountHistory history) {
+        return history.latestTransactions().stream().map(Transaction::getSequenceNumber).toList();
+    }
+}
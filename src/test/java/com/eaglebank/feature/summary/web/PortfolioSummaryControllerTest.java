@@ -0,0 +1,110 @@
+package com.eaglebank.feature.summary.web;
+
+import com.eaglebank.feature.auth.JwtProvider;
+import com.eaglebank.feature.common.web.ResourceVersion;
+import com.eaglebank.feature.summary.service.PortfolioSummaryService;
+import com.eaglebank.feature.summary.web.model.AccountSummary;
+import com.eaglebank.feature.summary.web.model.CurrencyTotal;
+import com.eaglebank.feature.summary.web.model.PortfolioSummaryResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(PortfolioSummaryController.class)
+class PortfolioSummaryControllerTest {
+    private static final String SUMMARY_PATH = "/v1/users/{userId}/summary";
+    @MockitoBean
+    private JwtProvider jwtProvider;
+    @MockitoBean
+    private PortfolioSummaryService portfolioSummaryService;
+    @Autowired
+    private MockMvc mockMvc;
+    private UUID userId;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        token = "Bearer test-token";
+        when(jwtProvider.getUserId(anyString())).thenReturn(userId);
+    }
+
+    @Test
+    @DisplayName("Given own user id, when GET summary, then return totals and accounts")
+    void getSummary() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        when(portfolioSummaryService.getSummary(userId, 5)).thenReturn(PortfolioSummaryResponse.builder()
+                .totals(List.of(CurrencyTotal.builder().currency("GBP").balance(new BigDecimal("12.50")).build()))
+                .accounts(List.of(AccountSummary.builder().accountId(accountId).latestTransactions(List.of()).build()))
+                .build());
+        mockMvc.perform(get(SUMMARY_PATH, userId)
+                        .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totals[0].currency").value("GBP"))
+                .andExpect(jsonPath("$.totals[0].balance").value(12.50))
+                .andExpect(jsonPath("$.accounts[0].accountId").value(accountId.toString()));
+    }
+
+    @Test
+    @DisplayName("Given a transaction count, when GET summary, then it is passed to the service")
+    void getSummary_transactionsPerAccount() throws Exception {
+        when(portfolioSummaryService.getSummary(userId, 10))
+                .thenReturn(PortfolioSummaryResponse.builder().totals(List.of()).accounts(List.of()).build());
+        mockMvc.perform(get(SUMMARY_PATH, userId)
+                        .param("transactions", "10")
+                        .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+        verify(portfolioSummaryService).getSummary(userId, 10);
+    }
+
+    @Test
+    @DisplayName("Given a transaction count out of range, when GET summary, then return 400")
+    void getSummary_invalidTransactions() throws Exception {
+        mockMvc.perform(get(SUMMARY_PATH, userId)
+                        .param("transactions", "51")
+                        .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isBadRequest());
+        verify(portfolioSummaryService, never()).getSummary(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Given another user's id, when GET summary, then return 403")
+    void getSummary_otherUser() throws Exception {
+        mockMvc.perform(get(SUMMARY_PATH, UUID.randomUUID())
+                        .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(portfolioSummaryService);
+    }
+
+    @Test
+    @DisplayName("Given a matching If-None-Match, when GET summary, then return 304 without building it")
+    void getSummary_notModified() throws Exception {
+        when(portfolioSummaryService.getSummaryVersion(userId)).thenReturn(Optional.of(ResourceVersion.of("2-5-100")));
+        mockMvc.perform(get(SUMMARY_PATH, userId)
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2-5-100\""))
+                .andExpect(status().isNotModified());
+        verify(portfolioSummaryService, never()).getSummary(any(), anyInt());
+    }
+}
@@ -0,0 +1,125 @@
+package com.eaglebank.feature.transaction.repository;
+
+import com.eaglebank.feature.transaction.domain.DailyBalance;
+import com.eaglebank.feature.transaction.domain.Transaction;
+import com.eaglebank.feature.transaction.web.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest
+@Import(DailyBalanceRepository.class)
+class DailyBalanceRepositoryTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DailyBalanceRepository dailyBalanceRepository;
+    private UUID accountId;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        accountId = createAccount();
+        // Fixed for the whole test transaction, like the timestamps the ledger rows get
+        today = jdbcTemplate.queryForObject("SELECT CURRENT_DATE", LocalDate.class);
+    }
+
+    @Test
+    @DisplayName("Given postings in separate calls, when recorded, then today's rollup accumulates and matches a rebuild")
+    void recordPostings_accumulatesAndMatchesRebuild() {
+        dailyBalanceRepository.recordPostings(List.of(post(accountId, TransactionType.DEPOSIT, 5000, 5000, 1),
+                post(accountId, TransactionType.WITHDRAW, 1200, 3800, 2)));
+        dailyBalanceRepository.recordPostings(List.of(post(accountId, TransactionType.DEPOSIT, 300, 4100, 3)));
+
+        DailyBalance recorded = dailyBalanceRepository.getDailyBalances(accountId, today, today).getFirst();
+        assertEquals(5300L, recorded.getCredits());
+        assertEquals(1200L, recorded.getDebits());
+        assertEquals(3, recorded.getPostings());
+        assertEquals(4100L, recorded.getClosingBalance());
+        assertEquals(3L, recorded.getLastSequenceNumber());
+
+        dailyBalanceRepository.rebuildAccount(accountId);
+        assertEquals(List.of(recorded), dailyBalanceRepository.getDailyBalances(accountId, today, today));
+    }
+
+    @Test
+    @DisplayName("Given one call posting to two accounts, when recorded, then each account gets its own rollup")
+    void recordPostings_splitsByAccount() {
+        UUID otherAccountId = createAccount();
+        dailyBalanceRepository.recordPostings(List.of(post(accountId, TransactionType.WITHDRAW, 700, 0, 1),
+                post(otherAccountId, TransactionType.DEPOSIT, 700, 700, 1)));
+
+        assertEquals(700L, dailyBalanceRepository.getDailyBalances(accountId, today, today).getFirst().getDebits());
+        DailyBalance other = dailyBalanceRepository.getDailyBalances(otherAccountId, today, today).getFirst();
+        assertEquals(700L, other.getCredits());
+        assertEquals(0L, other.getDebits());
+        assertEquals(700L, other.getClosingBalance());
+    }
+
+    @Test
+    @DisplayName("Given history over several days, when rebuilt, then each day has its totals and last closing balance")
+    void rebuildAccount_groupsHistoryByDay() {
+        insertRow(accountId, TransactionType.DEPOSIT, 1000, 1000, 1, "2025-03-01 09:00:00");
+        insertRow(accountId, TransactionType.DEPOSIT, 500, 1500, 2, "2025-03-01 17:30:00");
+        insertRow(accountId, TransactionType.WITHDRAW, 200, 1300, 3, "2025-03-04 08:00:00");
+        insertRow(accountId, TransactionType.DEPOSIT, 100, 1400, 4, "2025-03-07 12:00:00");
+        // Stale rollup that the rebuild has to replace
+        jdbcTemplate.update("INSERT INTO daily_account_balance VALUES (?, DATE '2025-03-02', 1, 1, 1, 1, 1)", accountId);
+
+        dailyBalanceRepository.rebuildAccount(accountId);
+
+        List<DailyBalance> days = dailyBalanceRepository.getDailyBalances(accountId,
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 5));
+        assertEquals(List.of(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 4)),
+                days.stream().map(DailyBalance::getBalanceDate).toList());
+        assertEquals(1500L, days.get(0).getCredits());
+        assertEquals(2, days.get(0).getPostings());
+        assertEquals(1500L, days.get(0).getClosingBalance());
+        assertEquals(200L, days.get(1).getDebits());
+        assertEquals(1300L, days.get(1).getClosingBalance());
+        assertEquals(0L, dailyBalanceRepository.getClosingBalanceBefore(accountId, LocalDate.of(2025, 3, 1)));
+        assertEquals(1300L, dailyBalanceRepository.getClosingBalanceBefore(accountId, LocalDate.of(2025, 3, 7)));
+    }
+
+    private UUID createAccount() {
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)", userId, "Test", userId + "@test.com");
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO bank_account (account_id, name, account_type, account_number, sort_code, " +
+                        "currency, user_id) VALUES (?, 'Account', 'PERSONAL', ?, '10-10-10', 'GBP', ?)",
+                id, id.toString().substring(0, 8), userId);
+        return id;
+    }
+
+    // Inserts the ledger row stamped now, as the posting paths do, and returns it for recording
+    private Transaction post(UUID account, TransactionType type, long amount, long balanceAfter, long sequenceNumber) {
+        Transaction transaction = Transaction.builder()
+                .transactionId(UUID.randomUUID())
+                .accountId(account)
+                .amount(amount)
+                .type(type)
+                .balanceAfter(balanceAfter)
+                .sequenceNumber(sequenceNumber)
+                .build();
+        jdbcTemplate.update("INSERT INTO transaction (transaction_id, amount, type, timestamp, account_id, " +
+                        "balance_after, sequence_number) VALUES (?, ?, ?, CURRENT_TIMESTAMP, ?, ?, ?)",
+                transaction.getTransactionId(), amount, type.name(), account, balanceAfter, sequenceNumber);
+        return transaction;
+    }
+
+    private void insertRow(UUID account, TransactionType type, long amount, long balanceAfter, long sequenceNumber, String timestamp) {
+        jdbcTemplate.update("INSERT INTO transaction (transaction_id, amount, type, timestamp, account_id, " +
+                        "balance_after, sequence_number) VALUES (?, ?, ?, TIMESTAMP '" + timestamp + "', ?, ?, ?)",
+                UUID.randomUUID(), amount, type.name(), account, balanceAfter, sequenceNumber);
+    }
+}
@@ -0,0 +1,147 @@
+package com.eaglebank.feature.transaction.repository;
+
+import com.eaglebank.feature.account.repository.AccountCache;
+import com.eaglebank.feature.account.repository.BankAccountRepository;
+import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.eaglebank.feature.account.web.model.AccountType;
+import com.eaglebank.feature.transaction.domain.Transaction;
+import com.eaglebank.feature.transaction.web.model.TransactionType;
+import com.eaglebank.feature.user.repository.UserRepository;
+import com.eaglebank.feature.user.repository.domain.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second read back through the repositories, against the reflective mapping they used before: a new
+ * {@link BeanPropertyRowMapper} per query for account lists, and a by-name mapper that parses UUID strings and
+ * looks up the UTC zone per row for transaction histories. Both sides run the same query on the same in-memory
+ * H2 database, so the difference is the mapping.
+ * <p>
+ * Run with {@code main}, or through {@code org.openjdk.jmh.Main RowMappingBenchmark} on the test classpath. The
+ * GC profiler reports allocation per row next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+    private static final int ACCOUNTS = 20;
+    private static final int HISTORY = 10_000;
+
+    private JdbcTemplate jdbcTemplate;
+    private BankAccountRepository bankAccountRepository;
+    private TransactionRepository transactionRepository;
+    private UUID userId;
+    private UUID accountId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:row-mapping;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        bankAccountRepository = new BankAccountRepository(jdbcTemplate, new AccountCache(new SimpleMeterRegistry(), 1, Duration.ofMinutes(1)));
+        transactionRepository = new TransactionRepository(jdbcTemplate);
+
+        userId = new UserRepository(jdbcTemplate).createUser(User.builder().name("Bench").email("bench@test.com").build());
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountId = bankAccountRepository.createAccount(userId, BankAccount.builder()
+                    .name("Account " + i)
+                    .accountType(AccountType.PERSONAL)
+                    .accountNumber(String.format("01%06d", i))
+                    .sortCode("10-10-10")
+                    .currency("GBP")
+                    .build());
+        }
+        List<Transaction> history = new ArrayList<>(HISTORY);
+        for (int i = 1; i <= HISTORY; i++) {
+            history.add(Transaction.builder()
+                    .transactionId(UUID.randomUUID())
+                    .accountId(accountId)
+                    .amount(100)
+                    .type(TransactionType.DEPOSIT)
+                    .balanceAfter(100L * i)
+                    .sequenceNumber(i)
+                    .build());
+        }
+        transactionRepository.createTransactions(history);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCOUNTS)
+    public List<BankAccount> accountsBeanPropertyRowMapper() {
+        return jdbcTemplate.query("SELECT * FROM bank_account WHERE user_id = ?",
+                new BeanPropertyRowMapper<>(BankAccount.class), userId);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCOUNTS)
+    public List<BankAccount> accountsColumnIndexMapper() {
+        return bankAccountRepository.getAccountsByUserId(userId);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HISTORY)
+    public void historyByNameMapper(Blackhole blackhole) {
+        String sql = "SELECT * FROM transaction WHERE account_id = ? ORDER BY timestamp DESC, transaction_id DESC";
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> blackhole.consume(Transaction.builder()
+                .transactionId(UUID.fromString(rs.getString("transaction_id")))
+                .accountId(UUID.fromString(rs.getString("account_id")))
+                .amount(rs.getLong("amount"))
+                .type(TransactionType.valueOf(rs.getString("type")))
+                .timestamp(rs.getTimestamp("timestamp").toInstant().atZone(ZoneId.of("UTC")))
+                .balanceAfter(rs.getLong("balance_after"))
+                .sequenceNumber(rs.getLong("sequence_number"))
+                .build()), accountId);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HISTORY)
+    public void historyColumnIndexMapper(Blackhole blackhole) {
+        transactionRepository.streamTransactions(accountId, 500, blackhole::consume);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RowMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.eaglebank.feature.transaction.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountSequencerTest {
+    private SimpleMeterRegistry meterRegistry;
+    private AccountSequencer accountSequencer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accountSequencer = new AccountSequencer(16, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Given a stripe count that is not a power of two, when created, then it is rounded up")
+    void stripeCount_roundedUpToPowerOfTwo() {
+        assertEquals(16, accountSequencer.stripeCount());
+        assertEquals(64, new AccountSequencer(33, meterRegistry).stripeCount());
+        assertEquals(1, new AccountSequencer(1, meterRegistry).stripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new AccountSequencer(0, meterRegistry));
+    }
+
+    @Test
+    @DisplayName("Given concurrent posts to one account, when sequenced, then they never overlap")
+    void sameAccount_runsOneAtATime() throws Exception {
+        UUID accountId = UUID.randomUUID();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> accountSequencer.execute(accountId, () -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    Thread.onSpinWait();
+                    return inFlight.decrementAndGet();
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, maxInFlight.get());
+        assertEquals(200, meterRegistry.get("eaglebank.transaction.sequencer.wait").timer().count());
+        assertEquals(0.0, meterRegistry.get("eaglebank.transaction.sequencer.queue.depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Given two accounts on different stripes, when sequenced, then they run in parallel")
+    void differentAccounts_runInParallel() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = first;
+        while (accountSequencer.stripeIndex(first) == accountSequencer.stripeIndex(second)) {
+            second = UUID.randomUUID();
+        }
+        UUID other = second;
+        CountDownLatch bothInside = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> a = executor.submit(() -> accountSequencer.execute(first, () -> awaitQuietly(bothInside)));
+            Future<Boolean> b = executor.submit(() -> accountSequencer.execute(other, () -> awaitQuietly(bothInside)));
+            assertTrue(a.get(5, TimeUnit.SECONDS));
+            assertTrue(b.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Given opposing pairs of accounts, when sequenced together, then they never deadlock")
+    void opposingPairs_neverDeadlock() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = first;
+        while (accountSequencer.stripeIndex(first) == accountSequencer.stripeIndex(second)) {
+            second = UUID.randomUUID();
+        }
+        UUID other = second;
+        AtomicInteger completed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                boolean forward = i % 2 == 0;
+                futures.add(executor.submit(() -> accountSequencer.execute(forward ? first : other, forward ? other : first,
+                        completed::incrementAndGet)));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2000, completed.get());
+    }
+
+    @Test
+    @DisplayName("Given two accounts on one stripe, when sequenced together, then the stripe is taken once")
+    void pairOnSameStripe_locksOnce() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        while (accountSequencer.stripeIndex(first) != accountSequencer.stripeIndex(second)) {
+            second = UUID.randomUUID();
+        }
+        assertEquals(1, accountSequencer.execute(first, second, () -> 1));
+        assertEquals(1, meterRegistry.get("eaglebank.transaction.sequencer.wait").timer().count());
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
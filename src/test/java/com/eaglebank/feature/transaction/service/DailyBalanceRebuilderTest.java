@@ -0,0 +1,91 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.account.repository.BankAccountRepository;
+import com.eaglebank.feature.common.exception.ResourceNotFoundException;
+import com.eaglebank.feature.transaction.repository.DailyBalanceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class DailyBalanceRebuilderTest {
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private DailyBalanceRebuilder rebuilder;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        rebuilder = new DailyBalanceRebuilder(dailyBalanceRepository, bankAccountRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, 2, 2, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rebuilder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Given some accounts, when rebuilt, then each is locked and rebuilt and missing ones are skipped")
+    void rebuild_locksEachAccountAndSkipsMissing() {
+        UUID first = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        UUID last = UUID.randomUUID();
+        when(bankAccountRepository.lockAccountBalance(deleted)).thenThrow(new ResourceNotFoundException("gone"));
+
+        assertEquals(2, rebuilder.rebuild(List.of(first, deleted, last)));
+
+        verify(bankAccountRepository).lockAccountBalance(first);
+        verify(dailyBalanceRepository).rebuildAccount(first);
+        verify(dailyBalanceRepository).rebuildAccount(last);
+        verify(dailyBalanceRepository, never()).rebuildAccount(deleted);
+        assertEquals(3, meterRegistry.get("eaglebank.transaction.daily-balance.rebuild").timer().count());
+    }
+
+    @Test
+    @DisplayName("Given more accounts than a page, when rebuilding all, then pages follow the last id of the previous one")
+    void rebuildAll_pagesThroughAccounts() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(bankAccountRepository.getAccountIdsAfter(null, null, 2)).thenReturn(ids.subList(0, 2));
+        when(bankAccountRepository.getAccountIdsAfter(ids.get(1), null, 2)).thenReturn(ids.subList(2, 3));
+
+        assertEquals(3, rebuilder.rebuildAll());
+
+        ids.forEach(id -> verify(dailyBalanceRepository).rebuildAccount(id));
+        verify(bankAccountRepository, times(2)).getAccountIdsAfter(any(), isNull(), eq(2));
+    }
+
+    @Test
+    @DisplayName("Given a range of accounts, when rebuilt, then every page keeps the upper bound")
+    void rebuildRange_keepsUpperBound() {
+        UUID after = UUID.randomUUID();
+        UUID upTo = UUID.randomUUID();
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(bankAccountRepository.getAccountIdsAfter(after, upTo, 2)).thenReturn(ids.subList(0, 2));
+        when(bankAccountRepository.getAccountIdsAfter(ids.get(1), upTo, 2)).thenReturn(ids.subList(2, 3));
+
+        assertEquals(3, rebuilder.rebuildRange(after, upTo));
+
+        ids.forEach(id -> verify(dailyBalanceRepository).rebuildAccount(id));
+        verify(dailyBalanceRepository, never()).rebuildAccount(after);
+        verify(bankAccountRepository, times(2)).getAccountIdsAfter(any(), eq(upTo), eq(2));
+    }
+}
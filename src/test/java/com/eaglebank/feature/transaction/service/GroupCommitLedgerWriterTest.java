@@ -0,0 +1,172 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.transaction.domain.Transaction;
+import com.eaglebank.feature.transaction.repository.DailyBalanceRepository;
+import com.eaglebank.feature.transaction.repository.TransactionRepository;
+import com.eaglebank.feature.transaction.web.model.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class GroupCommitLedgerWriterTest {
+    private static final int POSTINGS = 64;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private GroupCommitLedgerWriter ledgerWriter;
+    private final AtomicInteger rowsWritten = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        doAnswer(invocation -> rowsWritten.addAndGet(invocation.<List<Transaction>>getArgument(0).size()))
+                .when(transactionRepository).createTransactions(any());
+        meterRegistry = new SimpleMeterRegistry();
+        ledgerWriter = new GroupCommitLedgerWriter(transactionRepository, dailyBalanceRepository, new TransactionTemplate(transactionManager),
+                meterRegistry, 16, 50_000);
+        ledgerWriter.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ledgerWriter.stop();
+    }
+
+    @Test
+    @DisplayName("Given concurrent postings, when posted, then they are written in fewer batches and commits")
+    void concurrentPostings_groupedIntoBatches() throws Exception {
+        // The first posting holds the writer thread until the rest have been posted, so they are queued behind it
+        // however the threads happen to be scheduled
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch allPosted = new CountDownLatch(POSTINGS - 1);
+        ExecutorService executor = Executors.newFixedThreadPool(POSTINGS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(executor.submit(() -> ledgerWriter.post(() -> {
+                writerBusy.countDown();
+                awaitQuietly(allPosted);
+                return new LedgerPosting<>(0, List.of(entry()));
+            })));
+            assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < POSTINGS; i++) {
+                int value = i;
+                results.add(executor.submit(() -> {
+                    allPosted.countDown();
+                    return ledgerWriter.post(() -> new LedgerPosting<>(value, List.of(entry())));
+                }));
+            }
+            for (int i = 0; i < POSTINGS; i++) {
+                assertEquals(i, results.get(i).get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Callers are released before the writer records the group's meters; stopping joins the writer thread
+        ledgerWriter.stop();
+        assertEquals(POSTINGS, rowsWritten.get());
+        long groups = meterRegistry.get("eaglebank.ledger.group-commit.batch.size").summary().count();
+        assertTrue(groups < POSTINGS, "expected postings to share commits but saw " + groups + " groups");
+        verify(transactionManager, times((int) groups)).commit(any());
+        assertEquals(groups, meterRegistry.get("eaglebank.ledger.group-commit.flush").timer().count());
+    }
+
+    @Test
+    @DisplayName("Given a posting that fails, when grouped with others, then only its caller sees the failure")
+    void failingPosting_isolatedBySavepoint() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> ok = executor.submit(() -> ledgerWriter.post(() -> new LedgerPosting<>("ok", List.of(entry()))));
+            Future<String> failed = executor.submit(() -> ledgerWriter.<String>post(() -> {
+                throw new IllegalStateException("boom");
+            }));
+            assertEquals("ok", ok.get(5, TimeUnit.SECONDS));
+            Exception e = assertThrows(Exception.class, () -> failed.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, rowsWritten.get());
+        verify(dailyBalanceRepository).recordPostings(argThat(rows -> rows.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Given the writer has stopped, when posting, then the caller is rejected")
+    void stoppedWriter_rejectsPostings() throws Exception {
+        ledgerWriter.stop();
+        assertThrows(IllegalStateException.class, () -> ledgerWriter.post(() -> new LedgerPosting<>(1, List.of())));
+    }
+
+    @Test
+    @DisplayName("Given the writer thread is interrupted, when posting afterwards, then it has stopped instead of spinning")
+    void interruptedWriter_stops() throws Exception {
+        // Postings run on the writer thread, so this leaves the writer's interrupt flag set
+        assertEquals(1, ledgerWriter.post(() -> {
+            Thread.currentThread().interrupt();
+            return new LedgerPosting<>(1, List.of(entry()));
+        }));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            boolean rejected = false;
+            while (!rejected && System.nanoTime() < deadline) {
+                Future<Integer> next = executor.submit(() -> ledgerWriter.post(() -> new LedgerPosting<>(2, List.of())));
+                try {
+                    next.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    rejected = e.getCause() instanceof IllegalStateException;
+                }
+            }
+            assertTrue(rejected, "expected the interrupted writer to stop and reject postings");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, rowsWritten.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Transaction entry() {
+        return Transaction.builder()
+                .transactionId(UUID.randomUUID())
+                .accountId(UUID.randomUUID())
+                .amount(100)
+                .type(TransactionType.DEPOSIT)
+                .build();
+    }
+}
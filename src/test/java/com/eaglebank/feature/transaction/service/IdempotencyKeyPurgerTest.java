@@ -0,0 +1,73 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.transaction.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest
+@Import(IdempotencyKeyRepository.class)
+class IdempotencyKeyPurgerTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyKeyPurger purger;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // A batch size of 2 makes the purge below take several statements
+        purger = new IdempotencyKeyPurger(idempotencyKeyRepository, meterRegistry, Duration.ofHours(24), Duration.ofHours(1), 2);
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)", userId, "Test", userId + "@test.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        purger.shutdown();
+    }
+
+    @Test
+    @DisplayName("Given keys inside and outside the idempotency window, when purged, then only the expired ones are deleted")
+    void purge_deletesKeysOlderThanWindow() {
+        Instant now = Instant.now();
+        insertKey("expired-1", now.minus(Duration.ofDays(3)));
+        insertKey("expired-2", now.minus(Duration.ofHours(25)));
+        insertKey("expired-3", now.minus(Duration.ofDays(30)));
+        insertKey("recent", now.minus(Duration.ofHours(23)));
+        insertKey("new", now);
+
+        assertEquals(3, purger.purge());
+
+        assertEquals(List.of("new", "recent"), jdbcTemplate.queryForList(
+                "SELECT idempotency_key FROM idempotency_key ORDER BY idempotency_key", String.class));
+        assertNotNull(idempotencyKeyRepository.getKey(userId, "recent"));
+        assertNull(idempotencyKeyRepository.getKey(userId, "expired-1"));
+        assertEquals(3.0, meterRegistry.get("eaglebank.transaction.idempotency.purged").counter().count());
+        assertEquals(0, purger.purge());
+    }
+
+    private void insertKey(String key, Instant createdAt) {
+        jdbcTemplate.update("INSERT INTO idempotency_key (user_id, idempotency_key, account_id, type, amount, " +
+                        "transaction_id, balance_after, sequence_number, created_timestamp) " +
+                        "VALUES (?, ?, ?, 'DEPOSIT', 100, ?, 100, 1, ?)",
+                userId, key, UUID.randomUUID(), UUID.randomUUID(), Timestamp.from(createdAt));
+    }
+}
@@ -0,0 +1,154 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.transaction.domain.IdempotencyRecord;
+import com.eaglebank.feature.transaction.repository.IdempotencyKeyRepository;
+import com.eaglebank.feature.transaction.web.model.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IdempotentRequestsTest {
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    private IdempotentRequests idempotentRequests;
+    private UUID userId;
+    private IdempotencyRecord record;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        idempotentRequests = new IdempotentRequests(idempotencyKeyRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        userId = UUID.randomUUID();
+        record = IdempotencyRecord.builder()
+                .userId(userId)
+                .idempotencyKey("key-1")
+                .accountId(UUID.randomUUID())
+                .type(TransactionType.DEPOSIT)
+                .amount(1000)
+                .transactionId(UUID.randomUUID())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Given concurrent requests with one key, when executed, then the posting runs once and all share its result")
+    void concurrentRequests_mergedIntoOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<IdempotencyRecord>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> idempotentRequests.execute(userId, "key-1", () -> {
+                    executions.incrementAndGet();
+                    awaitQuietly(release);
+                    return record;
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<IdempotencyRecord> result : results) {
+                assertSame(record, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, executions.get());
+        verify(idempotencyKeyRepository, times(1)).getKey(userId, "key-1");
+    }
+
+    @Test
+    @DisplayName("Given the same key from another user, when executed, then it runs separately")
+    void keysScopedPerUser() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        idempotentRequests.execute(userId, "key-1", () -> {
+            executions.incrementAndGet();
+            return record;
+        });
+        idempotentRequests.execute(UUID.randomUUID(), "key-1", () -> {
+            executions.incrementAndGet();
+            return record;
+        });
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    @DisplayName("Given a failed posting, when the key is retried, then the posting runs again")
+    void failedPosting_notRemembered() throws Exception {
+        assertThrows(IllegalStateException.class, () -> idempotentRequests.execute(userId, "key-1", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertSame(record, idempotentRequests.execute(userId, "key-1", () -> record));
+    }
+
+    @Test
+    @DisplayName("Given a posting that fails with an Error, when the key is retried, then the retry runs instead of hanging")
+    void failedWithError_notRemembered() throws Exception {
+        assertThrows(AssertionError.class, () -> idempotentRequests.execute(userId, "key-1", () -> {
+            throw new AssertionError("boom");
+        }));
+        IdempotencyRecord retried = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> idempotentRequests.execute(userId, "key-1", () -> record));
+        assertSame(record, retried);
+    }
+
+    @Test
+    @DisplayName("Given a stored key at the end of its window, when replayed, then the cached result expires with it")
+    void cachedResult_expiresWithStoredKey() throws Exception {
+        record.setCreatedTimestamp(ZonedDateTime.now().minusMinutes(5));
+        when(idempotencyKeyRepository.getKey(userId, "key-1")).thenReturn(record);
+
+        idempotentRequests.execute(userId, "key-1", () -> fail("the stored result should be replayed"));
+        idempotentRequests.execute(userId, "key-1", () -> fail("the stored result should be replayed"));
+
+        verify(idempotencyKeyRepository, times(2)).getKey(userId, "key-1");
+    }
+
+    @Test
+    @DisplayName("Given a key stored within its window, when replayed, then the result is answered from memory")
+    void cachedResult_keptWithinWindow() throws Exception {
+        record.setCreatedTimestamp(ZonedDateTime.now().minusMinutes(1));
+        when(idempotencyKeyRepository.getKey(userId, "key-1")).thenReturn(record);
+
+        idempotentRequests.execute(userId, "key-1", () -> fail("the stored result should be replayed"));
+        idempotentRequests.execute(userId, "key-1", () -> fail("the stored result should be replayed"));
+
+        verify(idempotencyKeyRepository, times(1)).getKey(userId, "key-1");
+    }
+
+    @Test
+    @DisplayName("Given another instance stored the key first, when posting, then its stored result is returned")
+    void duplicateKey_returnsStoredResult() throws Exception {
+        when(idempotencyKeyRepository.getKey(userId, "key-1")).thenReturn(null, record);
+        IdempotencyRecord result = idempotentRequests.execute(userId, "key-1", () -> {
+            throw new DuplicateKeyException("duplicate");
+        });
+        assertSame(record, result);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
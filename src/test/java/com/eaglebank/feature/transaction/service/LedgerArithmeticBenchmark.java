@@ -0,0 +1,114 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.common.money.MinorUnits;
+import com.eaglebank.feature.transaction.web.model.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-item arithmetic of a batch posting done on {@link BigDecimal} balances, as it was, against
+ * {@code long} minor units. Both variants start from the decimal amounts the JSON layer hands over, so the
+ * minor-units side also pays for converting each amount on the way in and the balance on the way out.
+ * <p>
+ * Run with {@code main}, or through {@code org.openjdk.jmh.Main LedgerArithmeticBenchmark} on the test
+ * classpath. The GC profiler reports allocation per operation next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LedgerArithmeticBenchmark {
+    private static final int ITEMS = 1000;
+
+    private BigDecimal[] amounts;
+    private long[] minorUnitAmounts;
+    private TransactionType[] types;
+    private BigDecimal openingBalance;
+    private long openingBalanceMinorUnits;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        amounts = new BigDecimal[ITEMS];
+        minorUnitAmounts = new long[ITEMS];
+        types = new TransactionType[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            amounts[i] = BigDecimal.valueOf(1 + random.nextInt(50_000), 2);
+            minorUnitAmounts[i] = MinorUnits.of(amounts[i]);
+            types[i] = random.nextBoolean() ? TransactionType.DEPOSIT : TransactionType.WITHDRAW;
+        }
+        openingBalance = new BigDecimal("1000.00");
+        openingBalanceMinorUnits = MinorUnits.of(openingBalance);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalBatch() {
+        BigDecimal balance = openingBalance;
+        for (int i = 0; i < ITEMS; i++) {
+            BigDecimal amount = amounts[i];
+            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+                continue;
+            }
+            if (TransactionType.WITHDRAW == types[i] && balance.compareTo(amount) < 0) {
+                continue;
+            }
+            balance = TransactionType.WITHDRAW == types[i] ? balance.subtract(amount) : balance.add(amount);
+        }
+        return balance.subtract(openingBalance);
+    }
+
+    @Benchmark
+    public BigDecimal minorUnitsBatch() {
+        long balance = openingBalanceMinorUnits;
+        for (int i = 0; i < ITEMS; i++) {
+            long amount = MinorUnits.of(amounts[i]);
+            if (amount <= 0) {
+                continue;
+            }
+            if (TransactionType.WITHDRAW == types[i] && balance < amount) {
+                continue;
+            }
+            balance = TransactionType.WITHDRAW == types[i] ? balance - amount : balance + amount;
+        }
+        return MinorUnits.toDecimal(balance - openingBalanceMinorUnits);
+    }
+
+    @Benchmark
+    public long minorUnitsBatchArithmeticOnly() {
+        // The ledger path once amounts are already in minor units, as they are after the first conversion
+        long balance = openingBalanceMinorUnits;
+        for (int i = 0; i < ITEMS; i++) {
+            long amount = minorUnitAmounts[i];
+            if (TransactionType.WITHDRAW == types[i] && balance < amount) {
+                continue;
+            }
+            balance = TransactionType.WITHDRAW == types[i] ? balance - amount : balance + amount;
+        }
+        return balance - openingBalanceMinorUnits;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LedgerArithmeticBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,134 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.transaction.domain.Transaction;
+import com.eaglebank.feature.transaction.repository.TransactionRepository;
+import com.eaglebank.feature.transaction.web.model.TransactionExportFormat;
+import com.eaglebank.feature.transaction.web.model.TransactionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransactionExporterTest {
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private TransactionExporter transactionExporter;
+    private UUID accountId;
+    private Transaction deposit;
+    private Transaction withdrawal;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        transactionExporter = new TransactionExporter(transactionRepository, transactionManager, 100);
+        accountId = UUID.randomUUID();
+        ZonedDateTime timestamp = ZonedDateTime.of(2025, 3, 1, 9, 30, 0, 0, ZoneOffset.UTC);
+        deposit = transaction(TransactionType.DEPOSIT, 10050, timestamp, 12050, 2);
+        withdrawal = transaction(TransactionType.WITHDRAW, 2000, timestamp.minusMinutes(5), 2000, 1);
+        doAnswer(invocation -> {
+            Consumer<Transaction> action = invocation.getArgument(2);
+            List.of(deposit, withdrawal).forEach(action);
+            return null;
+        }).when(transactionRepository).streamTransactions(eq(accountId), eq(100), any());
+    }
+
+    @Test
+    @DisplayName("Given NDJSON, when exported, then each row is one JSON object per line")
+    void export_ndjson() throws Exception {
+        String[] lines = export(TransactionExportFormat.NDJSON).split("\n");
+
+        assertEquals(2, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals(deposit.getTransactionId().toString(), first.get("transactionId").asText());
+        assertEquals(0, new BigDecimal("100.50").compareTo(first.get("amount").decimalValue()));
+        assertEquals("DEPOSIT", first.get("type").asText());
+        assertEquals("2025-03-01T09:30:00Z", first.get("timestamp").asText());
+        assertEquals(0, new BigDecimal("120.50").compareTo(first.get("balanceAfter").decimalValue()));
+        assertEquals(2, first.get("sequenceNumber").asLong());
+        assertEquals("WITHDRAW", new ObjectMapper().readTree(lines[1]).get("type").asText());
+    }
+
+    @Test
+    @DisplayName("Given CSV, when exported, then a header is followed by one line per row")
+    void export_csv() throws Exception {
+        String csv = export(TransactionExportFormat.CSV);
+
+        assertEquals("transactionId,amount,type,timestamp,balanceAfter,sequenceNumber\n" +
+                deposit.getTransactionId() + ",100.50,DEPOSIT,2025-03-01T09:30:00Z,120.50,2\n" +
+                withdrawal.getTransactionId() + ",20.00,WITHDRAW,2025-03-01T09:25:00Z,20.00,1\n", csv);
+    }
+
+    @Test
+    @DisplayName("Given an export, when streamed, then rows are read in a read-only transaction")
+    void export_readsInReadOnlyTransaction() throws Exception {
+        export(TransactionExportFormat.CSV);
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Given the client disconnects, when writing, then the IO error reaches the caller")
+    void export_clientDisconnect() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        doAnswer(invocation -> {
+            Consumer<Transaction> action = invocation.getArgument(2);
+            for (int i = 0; i < 10_000; i++) {
+                action.accept(deposit);
+            }
+            return null;
+        }).when(transactionRepository).streamTransactions(eq(accountId), eq(100), any());
+
+        assertThrows(IOException.class, () -> transactionExporter.export(accountId, TransactionExportFormat.NDJSON, broken));
+        verify(transactionManager).rollback(any());
+    }
+
+    private String export(TransactionExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExporter.export(accountId, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private Transaction transaction(TransactionType type, long amount, ZonedDateTime timestamp,
+                                    long balanceAfter, long sequenceNumber) {
+        return Transaction.builder()
+                .transactionId(UUID.randomUUID())
+                .accountId(accountId)
+                .amount(amount)
+                .type(type)
+                .timestamp(timestamp)
+                .balanceAfter(balanceAfter)
+                .sequenceNumber(sequenceNumber)
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.transaction.web.model.ListTransactionsResponse;
+import com.eaglebank.feature.transaction.web.model.TransactionResponse;
+import com.eaglebank.feature.transaction.web.model.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionJsonCacheTest {
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private SimpleMeterRegistry meterRegistry;
+    private final Map<UUID, TransactionResponse> rows = new HashMap<>();
+    private final List<Collection<UUID>> loads = new ArrayList<>();
+    private final Function<Collection<UUID>, List<TransactionResponse>> loader = ids -> {
+        loads.add(List.copyOf(ids));
+        return ids.stream().filter(rows::containsKey).map(rows::get).toList();
+    };
+    private TransactionJsonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TransactionJsonCache(objectMapper, meterRegistry, DataSize.ofMegabytes(1));
+    }
+
+    @Test
+    @DisplayName("Given cached fragments, when a page is written, then it matches Jackson's output for the same response")
+    void writePage_matchesSerializedResponse() throws Exception {
+        List<TransactionResponse> transactions = List.of(row(3), row(2), row(1));
+        List<UUID> ids = transactions.stream().map(TransactionResponse::getTransactionId).toList();
+
+        byte[] withCursor = cache.writePage(ids, "next", loader);
+
+        assertEquals(objectMapper.writeValueAsString(ListTransactionsResponse.builder()
+                .transactions(transactions).nextCursor("next").build()), new String(withCursor));
+    }
+
+    @Test
+    @DisplayName("Given the last page, when written, then the cursor is left out exactly as Jackson leaves it out")
+    void writePage_lastPageMatchesSerializedResponse() throws Exception {
+        List<TransactionResponse> transactions = List.of(row(2), row(1));
+        List<UUID> ids = transactions.stream().map(TransactionResponse::getTransactionId).toList();
+
+        byte[] lastPage = cache.writePage(ids, null, loader);
+        byte[] emptyPage = cache.writePage(List.of(), null, loader);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(ListTransactionsResponse.builder()
+                .transactions(transactions).build()), lastPage);
+        assertArrayEquals(objectMapper.writeValueAsBytes(ListTransactionsResponse.builder()
+                .transactions(List.of()).build()), emptyPage);
+        assertEquals("{\"transactions\":[]}", new String(emptyPage));
+    }
+
+    @Test
+    @DisplayName("Given a partly cached page, when written, then only the missing rows are loaded, in one call")
+    void writePage_loadsMissesOnce() {
+        TransactionResponse first = row(1);
+        TransactionResponse second = row(2);
+        cache.writePage(List.of(first.getTransactionId()), null, loader);
+
+        cache.writePage(List.of(second.getTransactionId(), first.getTransactionId()), null, loader);
+        cache.writePage(List.of(second.getTransactionId(), first.getTransactionId()), null, loader);
+
+        assertEquals(List.of(List.of(first.getTransactionId()), List.of(second.getTransactionId())), loads);
+    }
+
+    @Test
+    @DisplayName("Given an id without a row, when a page is written, then it is left out")
+    void writePage_skipsMissingRows() throws Exception {
+        TransactionResponse present = row(1);
+        byte[] page = cache.writePage(List.of(UUID.randomUUID(), present.getTransactionId()), null, loader);
+        assertEquals(1, objectMapper.readTree(page).get("transactions").size());
+    }
+
+    @Test
+    @DisplayName("Given more JSON than the budget, when pages are written, then the cache stays within its byte limit")
+    void cache_boundedByBytes() throws Exception {
+        long limit = DataSize.ofKilobytes(16).toBytes();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TransactionJsonCache(objectMapper, meterRegistry, DataSize.ofBytes(limit));
+        for (int i = 0; i < 1000; i++) {
+            cache.writePage(List.of(row(i).getTransactionId()), null, loader);
+        }
+        // Caffeine evicts on a background thread, so the last writes may sit above the limit for a moment
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        double cachedBytes = cachedBytes();
+        while (cachedBytes > limit && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            cachedBytes = cachedBytes();
+        }
+        assertTrue(cachedBytes > 0);
+        assertTrue(cachedBytes <= limit, "cached " + cachedBytes + " bytes");
+    }
+
+    private double cachedBytes() {
+        return meterRegistry.get("eaglebank.transaction.json-cache.bytes").gauge().value();
+    }
+
+    private TransactionResponse row(long sequenceNumber) {
+        TransactionResponse response = TransactionResponse.builder()
+                .transactionId(UUID.randomUUID())
+                .amount(new BigDecimal("12.50"))
+                .type(TransactionType.DEPOSIT)
+                .timestamp(ZonedDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_000, ZoneId.of("UTC")))
+                .balanceAfter(BigDecimal.valueOf(sequenceNumber * 1250, 2))
+                .sequenceNumber(sequenceNumber)
+                .build();
+        rows.put(response.getTransactionId(), response);
+        return response;
+    }
+}
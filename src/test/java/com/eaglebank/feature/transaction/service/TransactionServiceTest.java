@@ -1,36 +1,81 @@
 package com.eaglebank.feature.transaction.service;
 
 import com.eaglebank.feature.account.repository.BankAccountRepository;
+import com.eaglebank.feature.account.repository.domain.BalanceUpdate;
+import com.eaglebank.feature.account.repository.domain.BalanceUpdateOutcome;
+import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.eaglebank.feature.common.exception.ConflictException;
 import com.eaglebank.feature.common.exception.InsufficientFundsException;
+import com.eaglebank.feature.common.exception.ResourceNotFoundException;
+import com.eaglebank.feature.transaction.domain.DailyBalance;
+import com.eaglebank.feature.transaction.domain.IdempotencyRecord;
 import com.eaglebank.feature.transaction.domain.Transaction;
+import com.eaglebank.feature.transaction.domain.TransactionCursor;
+import com.eaglebank.feature.transaction.repository.DailyBalanceRepository;
+import com.eaglebank.feature.transaction.repository.IdempotencyKeyRepository;
 import com.eaglebank.feature.transaction.repository.TransactionRepository;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionRequest;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionResponse;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionResult;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionStatus;
+import com.eaglebank.feature.transaction.web.model.DailyBalanceResponse;
+import com.eaglebank.feature.transaction.web.model.TransactionExportFormat;
 import com.eaglebank.feature.transaction.web.model.TransactionRequest;
 import com.eaglebank.feature.transaction.web.model.TransactionResponse;
 import com.eaglebank.feature.transaction.web.model.TransactionType;
+import com.eaglebank.feature.transaction.web.model.TransferRequest;
+import com.eaglebank.feature.transaction.web.model.TransferResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.nio.file.AccessDeniedException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class TransactionServiceTest {
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    // Recent, so replays fall inside the idempotency window counted from it
+    private static final ZonedDateTime POSTED_AT = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
 
     @Mock
     private TransactionRepository transactionRepository;
     @Mock
     private BankAccountRepository bankAccountRepository;
-    @InjectMocks
+    @Mock
+    private TransactionExporter transactionExporter;
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
     private TransactionService transactionService;
     private UUID accountId;
     private UUID userId;
@@ -39,6 +84,12 @@ class TransactionServiceTest {
     @BeforeEach
     void setUpMocks() {
         MockitoAnnotations.openMocks(this);
+        transactionService = new TransactionService(transactionRepository, bankAccountRepository,
+                new AccountSequencer(4, new SimpleMeterRegistry()),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), Optional.empty(), transactionExporter,
+                idempotencyKeyRepository, new IdempotentRequests(idempotencyKeyRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5)),
+                new TransactionJsonCache(OBJECT_MAPPER, new SimpleMeterRegistry(), DataSize.ofMegabytes(1)),
+                dailyBalanceRepository);
         accountId = UUID.randomUUID();
         userId = UUID.randomUUID();
         transactionId = UUID.randomUUID();
@@ -50,10 +101,14 @@ class TransactionServiceTest {
                 .amount(BigDecimal.valueOf(100))
                 .type(TransactionType.DEPOSIT)
                 .build();
-        when(bankAccountRepository.getBalance(accountId, userId)).thenReturn(BigDecimal.valueOf(200));
-        transactionService.createTransaction(accountId, userId, request);
-        verify(bankAccountRepository).depositBalance(BigDecimal.valueOf(100), accountId);
-        verify(transactionRepository).createTransaction(any(Transaction.class));
+        when(bankAccountRepository.depositBalance(10000L, accountId, userId)).thenReturn(BalanceUpdate.applied(25000L, 7, POSTED_AT));
+        TransactionResponse response = transactionService.createTransaction(accountId, userId, request, null);
+        verify(bankAccountRepository).depositBalance(10000L, accountId, userId);
+        verify(transactionRepository).createTransaction(argThat(row -> row.getBalanceAfter() == 25000L && row.getSequenceNumber() == 7));
+        verify(dailyBalanceRepository).recordPostings(argThat(rows -> rows.size() == 1 && rows.get(0).getAmount() == 10000L));
+        assertEquals(new BigDecimal("250.00"), response.getBalanceAfter());
+        assertEquals(7L, response.getSequenceNumber());
+        assertEquals(POSTED_AT, response.getTimestamp());
     }
 
     @Test
@@ -62,21 +117,105 @@ class TransactionServiceTest {
                 .amount(BigDecimal.valueOf(50))
                 .type(TransactionType.WITHDRAW)
                 .build();
-        when(bankAccountRepository.getBalance(accountId, userId)).thenReturn(BigDecimal.valueOf(100));
-        transactionService.createTransaction(accountId, userId, request);
-        verify(bankAccountRepository).withdrawBalance(BigDecimal.valueOf(50), accountId);
+        when(bankAccountRepository.withdrawBalance(5000L, accountId, userId)).thenReturn(BalanceUpdate.applied(5000L, 2, POSTED_AT));
+        transactionService.createTransaction(accountId, userId, request, null);
+        verify(bankAccountRepository).withdrawBalance(5000L, accountId, userId);
         verify(transactionRepository).createTransaction(any(Transaction.class));
     }
 
+    @Test
+    void createTransaction_idempotencyKey_replayAnsweredFromCache() throws Exception {
+        TransactionRequest request = TransactionRequest.builder()
+                .amount(BigDecimal.valueOf(100))
+                .type(TransactionType.DEPOSIT)
+                .build();
+        when(bankAccountRepository.depositBalance(10000L, accountId, userId)).thenReturn(BalanceUpdate.applied(10000L, 1, POSTED_AT));
+
+        TransactionResponse first = transactionService.createTransaction(accountId, userId, request, "key-1");
+        TransactionResponse replay = transactionService.createTransaction(accountId, userId, request, "key-1");
+
+        assertEquals(first.getTransactionId(), replay.getTransactionId());
+        assertEquals(POSTED_AT, first.getTimestamp());
+        assertEquals(POSTED_AT, replay.getTimestamp());
+        verify(bankAccountRepository, times(1)).depositBalance(anyLong(), any(), any());
+        verify(transactionRepository, times(1)).createTransaction(any(Transaction.class));
+        verify(idempotencyKeyRepository).createKey(argThat(record -> record.getTransactionId().equals(first.getTransactionId())
+                && record.getIdempotencyKey().equals("key-1") && record.getUserId().equals(userId)
+                && POSTED_AT.equals(record.getCreatedTimestamp())));
+        verify(idempotencyKeyRepository, times(1)).getKey(userId, "key-1");
+    }
+
+    @Test
+    void createTransaction_idempotencyKey_replayAnsweredFromDatabase() throws Exception {
+        when(idempotencyKeyRepository.getKey(userId, "key-1")).thenReturn(IdempotencyRecord.builder()
+                .userId(userId)
+                .idempotencyKey("key-1")
+                .accountId(accountId)
+                .type(TransactionType.WITHDRAW)
+                .amount(5000)
+                .transactionId(transactionId)
+                .createdTimestamp(POSTED_AT)
+                .build());
+        TransactionRequest request = TransactionRequest.builder()
+                .amount(BigDecimal.valueOf(50))
+                .type(TransactionType.WITHDRAW)
+                .build();
+
+        TransactionResponse response = transactionService.createTransaction(accountId, userId, request, "key-1");
+
+        assertEquals(transactionId, response.getTransactionId());
+        assertEquals(POSTED_AT, response.getTimestamp());
+        verifyNoInteractions(bankAccountRepository, transactionRepository);
+    }
+
+    @Test
+    void createTransaction_idempotencyKey_reusedForDifferentRequest() throws Exception {
+        when(bankAccountRepository.depositBalance(anyLong(), eq(accountId), eq(userId))).thenReturn(BalanceUpdate.applied(10000L, 1, POSTED_AT));
+        transactionService.createTransaction(accountId, userId,
+                TransactionRequest.builder().amount(BigDecimal.TEN).type(TransactionType.DEPOSIT).build(), "key-1");
+
+        assertThrows(ConflictException.class, () -> transactionService.createTransaction(accountId, userId,
+                TransactionRequest.builder().amount(BigDecimal.ONE).type(TransactionType.DEPOSIT).build(), "key-1"));
+        verify(bankAccountRepository, times(1)).depositBalance(anyLong(), any(), any());
+    }
+
+    @Test
+    void createTransaction_idempotencyKey_failureNotRemembered() throws Exception {
+        TransactionRequest request = TransactionRequest.builder()
+                .amount(BigDecimal.valueOf(150))
+                .type(TransactionType.WITHDRAW)
+                .build();
+        when(bankAccountRepository.withdrawBalance(15000L, accountId, userId))
+                .thenReturn(BalanceUpdate.rejected(BalanceUpdateOutcome.INSUFFICIENT_FUNDS), BalanceUpdate.applied(0, 1, POSTED_AT));
+
+        assertThrows(InsufficientFundsException.class, () ->
+                transactionService.createTransaction(accountId, userId, request, "key-1"));
+        transactionService.createTransaction(accountId, userId, request, "key-1");
+
+        verify(bankAccountRepository, times(2)).withdrawBalance(anyLong(), any(), any());
+        verify(idempotencyKeyRepository, times(1)).createKey(any());
+    }
+
+    @Test
+    void createTransaction_subPennyAmount_rejected() {
+        TransactionRequest request = TransactionRequest.builder()
+                .amount(new BigDecimal("10.005"))
+                .type(TransactionType.DEPOSIT)
+                .build();
+        assertThrows(IllegalArgumentException.class, () ->
+                transactionService.createTransaction(accountId, userId, request, null));
+        verifyNoInteractions(bankAccountRepository, transactionRepository);
+    }
+
     @Test
     void createTransaction_withdraw_insufficientFunds() {
         TransactionRequest request = TransactionRequest.builder()
                 .amount(BigDecimal.valueOf(150))
                 .type(TransactionType.WITHDRAW)
                 .build();
-        when(bankAccountRepository.getBalance(accountId, userId)).thenReturn(BigDecimal.valueOf(100));
+        when(bankAccountRepository.withdrawBalance(15000L, accountId, userId)).thenReturn(BalanceUpdate.rejected(BalanceUpdateOutcome.INSUFFICIENT_FUNDS));
         assertThrows(InsufficientFundsException.class, () ->
-                transactionService.createTransaction(accountId, userId, request));
+                transactionService.createTransaction(accountId, userId, request, null));
         verify(transactionRepository, never()).createTransaction(any());
     }
 
@@ -86,9 +225,9 @@ class TransactionServiceTest {
                 .amount(BigDecimal.ZERO)
                 .type(TransactionType.DEPOSIT)
                 .build();
-        when(bankAccountRepository.getBalance(accountId, userId)).thenReturn(BigDecimal.valueOf(100));
         assertThrows(IllegalArgumentException.class, () ->
-                transactionService.createTransaction(accountId, userId, request));
+                transactionService.createTransaction(accountId, userId, request, null));
+        verifyNoInteractions(bankAccountRepository);
     }
 
     @Test
@@ -97,9 +236,9 @@ class TransactionServiceTest {
                 .amount(BigDecimal.valueOf(10))
                 .type(null)
                 .build();
-        when(bankAccountRepository.getBalance(accountId, userId)).thenReturn(BigDecimal.valueOf(100));
         assertThrows(IllegalArgumentException.class, () ->
-                transactionService.createTransaction(accountId, userId, request));
+                transactionService.createTransaction(accountId, userId, request, null));
+        verifyNoInteractions(bankAccountRepository);
     }
 
     @Test
@@ -108,41 +247,336 @@ class TransactionServiceTest {
                 .amount(BigDecimal.valueOf(10))
                 .type(TransactionType.DEPOSIT)
                 .build();
-        when(bankAccountRepository.getBalance(accountId, userId)).thenReturn(null);
+        when(bankAccountRepository.depositBalance(1000L, accountId, userId)).thenReturn(BalanceUpdate.rejected(BalanceUpdateOutcome.ACCOUNT_NOT_FOUND));
+        assertThrows(ResourceNotFoundException.class, () ->
+                transactionService.createTransaction(accountId, userId, request, null));
+        verify(transactionRepository, never()).createTransaction(any());
+    }
+
+    @Test
+    void createTransaction_notOwner() {
+        TransactionRequest request = TransactionRequest.builder()
+                .amount(BigDecimal.valueOf(10))
+                .type(TransactionType.WITHDRAW)
+                .build();
+        when(bankAccountRepository.withdrawBalance(1000L, accountId, userId)).thenReturn(BalanceUpdate.rejected(BalanceUpdateOutcome.NOT_OWNER));
+        assertThrows(AccessDeniedException.class, () ->
+                transactionService.createTransaction(accountId, userId, request, null));
+        verify(transactionRepository, never()).createTransaction(any());
+    }
+
+    @Test
+    void createTransactions_appliesNetChangeAndRejectsPerItem() throws Exception {
+        when(bankAccountRepository.lockAccountBalance(accountId))
+                .thenReturn(BankAccount.builder().accountId(accountId).userId(userId).balance(10000).lastSequenceNumber(4).build());
+        BatchTransactionRequest request = BatchTransactionRequest.builder()
+                .transactions(List.of(
+                        TransactionRequest.builder().amount(BigDecimal.valueOf(50)).type(TransactionType.DEPOSIT).build(),
+                        TransactionRequest.builder().amount(BigDecimal.valueOf(500)).type(TransactionType.WITHDRAW).build(),
+                        TransactionRequest.builder().amount(BigDecimal.valueOf(120)).type(TransactionType.WITHDRAW).build(),
+                        TransactionRequest.builder().amount(BigDecimal.ZERO).type(TransactionType.DEPOSIT).build(),
+                        TransactionRequest.builder().amount(new BigDecimal("0.001")).type(TransactionType.DEPOSIT).build()))
+                .build();
+
+        BatchTransactionResponse response = transactionService.createTransactions(accountId, userId, request);
+
+        assertEquals(new BigDecimal("30.00"), response.getBalance());
+        assertEquals(List.of(BatchTransactionStatus.ACCEPTED, BatchTransactionStatus.REJECTED,
+                        BatchTransactionStatus.ACCEPTED, BatchTransactionStatus.REJECTED, BatchTransactionStatus.REJECTED),
+                response.getResults().stream().map(BatchTransactionResult::getStatus).toList());
+        verify(bankAccountRepository).applyBalanceDelta(-7000L, 2, accountId);
+        verify(transactionRepository).createTransactions(argThat(rows -> rows.size() == 2
+                && rows.get(0).getBalanceAfter() == 15000L && rows.get(0).getSequenceNumber() == 5
+                && rows.get(1).getBalanceAfter() == 3000L && rows.get(1).getSequenceNumber() == 6));
+        verify(dailyBalanceRepository).recordPostings(argThat(rows -> rows.size() == 2));
+    }
+
+    @Test
+    void createTransactions_rejectsDepositThatWouldOverflowBalance() throws Exception {
+        when(bankAccountRepository.lockAccountBalance(accountId))
+                .thenReturn(BankAccount.builder().accountId(accountId).userId(userId).balance(0).lastSequenceNumber(0).build());
+        TransactionRequest huge = TransactionRequest.builder()
+                .amount(new BigDecimal("50000000000000000.00")).type(TransactionType.DEPOSIT).build();
+        BatchTransactionRequest request = BatchTransactionRequest.builder().transactions(List.of(huge, huge)).build();
+
+        BatchTransactionResponse response = transactionService.createTransactions(accountId, userId, request);
+
+        assertEquals(new BigDecimal("50000000000000000.00"), response.getBalance());
+        assertEquals(BatchTransactionStatus.ACCEPTED, response.getResults().get(0).getStatus());
+        assertEquals(BatchTransactionStatus.REJECTED, response.getResults().get(1).getStatus());
+        assertEquals("Deposit would exceed the maximum balance", response.getResults().get(1).getReason());
+        verify(bankAccountRepository).applyBalanceDelta(5_000_000_000_000_000_000L, 1, accountId);
+    }
+
+    @Test
+    void createTransactions_notOwner() {
+        when(bankAccountRepository.lockAccountBalance(accountId))
+                .thenReturn(BankAccount.builder().accountId(accountId).userId(UUID.randomUUID()).balance(1000).build());
+        BatchTransactionRequest request = BatchTransactionRequest.builder()
+                .transactions(List.of(TransactionRequest.builder().amount(BigDecimal.ONE).type(TransactionType.DEPOSIT).build()))
+                .build();
         assertThrows(AccessDeniedException.class, () ->
-                transactionService.createTransaction(accountId, userId, request));
+                transactionService.createTransactions(accountId, userId, request));
+        verify(bankAccountRepository, never()).applyBalanceDelta(anyLong(), anyInt(), any());
+        verify(transactionRepository, never()).createTransactions(any());
+        verifyNoInteractions(dailyBalanceRepository);
+    }
+
+    @Test
+    void transfer_locksInAccountOrderAndWritesBothLegs() throws Exception {
+        UUID toAccountId = UUID.randomUUID();
+        when(bankAccountRepository.lockAccountBalance(accountId))
+                .thenReturn(BankAccount.builder().accountId(accountId).userId(userId).balance(10000).lastSequenceNumber(3).build());
+        when(bankAccountRepository.lockAccountBalance(toAccountId))
+                .thenReturn(BankAccount.builder().accountId(toAccountId).userId(UUID.randomUUID()).balance(0).build());
+
+        TransferResponse response = transactionService.transfer(accountId, userId,
+                TransferRequest.builder().toAccountId(toAccountId).amount(BigDecimal.valueOf(40)).build());
+
+        assertEquals(new BigDecimal("60.00"), response.getBalance());
+        boolean fromFirst = accountId.compareTo(toAccountId) < 0;
+        InOrder locks = inOrder(bankAccountRepository);
+        locks.verify(bankAccountRepository).lockAccountBalance(fromFirst ? accountId : toAccountId);
+        locks.verify(bankAccountRepository).lockAccountBalance(fromFirst ? toAccountId : accountId);
+        verify(bankAccountRepository).applyBalanceDelta(-4000L, 1, accountId);
+        verify(bankAccountRepository).applyBalanceDelta(4000L, 1, toAccountId);
+        verify(transactionRepository).createTransactions(argThat(rows -> rows.size() == 2
+                && rows.get(0).getTransactionId().equals(response.getDebitTransactionId())
+                && rows.get(0).getType() == TransactionType.WITHDRAW && rows.get(0).getAccountId().equals(accountId)
+                && rows.get(0).getBalanceAfter() == 6000L && rows.get(0).getSequenceNumber() == 4
+                && rows.get(1).getTransactionId().equals(response.getCreditTransactionId())
+                && rows.get(1).getType() == TransactionType.DEPOSIT && rows.get(1).getAccountId().equals(toAccountId)
+                && rows.get(1).getBalanceAfter() == 4000L && rows.get(1).getSequenceNumber() == 1));
+        verify(dailyBalanceRepository).recordPostings(argThat(rows -> rows.size() == 2
+                && rows.get(0).getAccountId().equals(accountId) && rows.get(1).getAccountId().equals(toAccountId)));
+    }
+
+    @Test
+    void transfer_insufficientFunds() {
+        UUID toAccountId = UUID.randomUUID();
+        when(bankAccountRepository.lockAccountBalance(accountId))
+                .thenReturn(BankAccount.builder().accountId(accountId).userId(userId).balance(1000).build());
+        when(bankAccountRepository.lockAccountBalance(toAccountId))
+                .thenReturn(BankAccount.builder().accountId(toAccountId).userId(userId).balance(0).build());
+        assertThrows(InsufficientFundsException.class, () -> transactionService.transfer(accountId, userId,
+                TransferRequest.builder().toAccountId(toAccountId).amount(BigDecimal.valueOf(11)).build()));
+        verify(bankAccountRepository, never()).applyBalanceDelta(anyLong(), anyInt(), any());
+        verify(transactionRepository, never()).createTransactions(any());
+    }
+
+    @Test
+    void transfer_destinationBalanceOverflow() {
+        UUID toAccountId = UUID.randomUUID();
+        when(bankAccountRepository.lockAccountBalance(accountId))
+                .thenReturn(BankAccount.builder().accountId(accountId).userId(userId).balance(1000).build());
+        when(bankAccountRepository.lockAccountBalance(toAccountId))
+                .thenReturn(BankAccount.builder().accountId(toAccountId).userId(UUID.randomUUID()).balance(Long.MAX_VALUE - 10).build());
+        assertThrows(IllegalArgumentException.class, () -> transactionService.transfer(accountId, userId,
+                TransferRequest.builder().toAccountId(toAccountId).amount(BigDecimal.ONE).build()));
+        verify(bankAccountRepository, never()).applyBalanceDelta(anyLong(), anyInt(), any());
+        verify(transactionRepository, never()).createTransactions(any());
+    }
+
+    @Test
+    void transfer_notOwner() {
+        UUID toAccountId = UUID.randomUUID();
+        when(bankAccountRepository.lockAccountBalance(any()))
+                .thenReturn(BankAccount.builder().userId(UUID.randomUUID()).balance(1000).build());
+        assertThrows(AccessDeniedException.class, () -> transactionService.transfer(accountId, userId,
+                TransferRequest.builder().toAccountId(toAccountId).amount(BigDecimal.ONE).build()));
+        verify(transactionRepository, never()).createTransactions(any());
+    }
+
+    @Test
+    void transfer_sameAccountOrNonPositiveAmount() {
+        assertThrows(IllegalArgumentException.class, () -> transactionService.transfer(accountId, userId,
+                TransferRequest.builder().toAccountId(accountId).amount(BigDecimal.ONE).build()));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.transfer(accountId, userId,
+                TransferRequest.builder().toAccountId(UUID.randomUUID()).amount(BigDecimal.ZERO).build()));
+        verifyNoInteractions(bankAccountRepository);
     }
 
     @Test
     void getTransactions_success() throws Exception {
-        when(bankAccountRepository.countBankAccounts(accountId, userId)).thenReturn(1);
-        Transaction txn = Transaction.builder().transactionId(transactionId).amount(BigDecimal.TEN).type(TransactionType.DEPOSIT).build();
-        when(transactionRepository.getTransactions(accountId)).thenReturn(List.of(txn));
-        List<TransactionResponse> responses = transactionService.getTransactions(accountId, userId);
-        assertEquals(1, responses.size());
-        assertEquals(transactionId, responses.get(0).getTransactionId());
+        Transaction txn = Transaction.builder().transactionId(transactionId).amount(1000).type(TransactionType.DEPOSIT).build();
+        when(transactionRepository.getTransactionKeys(accountId, userId, null, 3))
+                .thenReturn(List.of(new TransactionCursor(Instant.now(), transactionId)));
+        stubRows(txn);
+        JsonNode response = page(transactionService.getTransactions(accountId, userId, 2, null));
+        assertEquals(1, response.get("transactions").size());
+        assertEquals(transactionId.toString(), response.get("transactions").get(0).get("transactionId").asText());
+        assertFalse(response.has("nextCursor"));
+        // Ownership came with the rows, so the account is not looked up separately
+        verifyNoInteractions(bankAccountRepository);
+    }
+
+    @Test
+    void getTransactions_cachedRowsAreNotReloaded() throws Exception {
+        Transaction txn = Transaction.builder().transactionId(transactionId).amount(1000).type(TransactionType.DEPOSIT).build();
+        when(transactionRepository.getTransactionKeys(accountId, userId, null, 3))
+                .thenReturn(List.of(new TransactionCursor(Instant.now(), transactionId)));
+        stubRows(txn);
+        byte[] first = transactionService.getTransactions(accountId, userId, 2, null);
+        byte[] second = transactionService.getTransactions(accountId, userId, 2, null);
+        assertArrayEquals(first, second);
+        verify(transactionRepository, times(1)).getTransactionsById(any());
+    }
+
+    @Test
+    void getTransactions_emptyHistory() throws Exception {
+        when(bankAccountRepository.getAccountOwner(accountId)).thenReturn(Optional.of(userId));
+        JsonNode response = page(transactionService.getTransactions(accountId, userId, 2, null));
+        assertTrue(response.get("transactions").isEmpty());
+        assertFalse(response.has("nextCursor"));
+    }
+
+    @Test
+    void getTransactions_accountNotFound() {
+        when(bankAccountRepository.getAccountOwner(accountId)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () ->
+                transactionService.getTransactions(accountId, userId, 10, null));
+    }
+
+    @Test
+    void getTransactions_fullPage_returnsCursorOfLastRow() throws Exception {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        Transaction newest = historyEntry(now);
+        Transaction middle = historyEntry(now.minusSeconds(1));
+        Transaction oldest = historyEntry(now.minusSeconds(2));
+        stubRows(newest, middle, oldest);
+        when(transactionRepository.getTransactionKeys(accountId, userId, null, 3)).thenReturn(List.of(
+                TransactionCursor.of(newest), TransactionCursor.of(middle), TransactionCursor.of(oldest)));
+
+        JsonNode response = page(transactionService.getTransactions(accountId, userId, 2, null));
+
+        assertEquals(2, response.get("transactions").size());
+        assertEquals(newest.getTransactionId().toString(), response.get("transactions").get(0).get("transactionId").asText());
+        assertEquals(TransactionCursor.of(middle), TransactionCursor.decode(response.get("nextCursor").asText()));
+
+        when(transactionRepository.getTransactionKeys(accountId, userId, TransactionCursor.of(middle), 3))
+                .thenReturn(List.of(TransactionCursor.of(oldest)));
+        JsonNode next = page(transactionService.getTransactions(accountId, userId, 2, response.get("nextCursor").asText()));
+        assertEquals(oldest.getTransactionId().toString(), next.get("transactions").get(0).get("transactionId").asText());
+        assertFalse(next.has("nextCursor"));
+    }
+
+    @Test
+    void getTransactions_invalidCursor() {
+        assertThrows(IllegalArgumentException.class, () ->
+                transactionService.getTransactions(accountId, userId, 10, "not-a-cursor"));
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
     void getTransactions_accessDenied() {
-        when(bankAccountRepository.countBankAccounts(accountId, userId)).thenReturn(0);
+        when(bankAccountRepository.getAccountOwner(accountId)).thenReturn(Optional.of(UUID.randomUUID()));
+        assertThrows(AccessDeniedException.class, () ->
+                transactionService.getTransactions(accountId, userId, 10, null));
+    }
+
+    @Test
+    void exportTransactions_streamsThroughExporter() throws Exception {
+        when(bankAccountRepository.getAccountOwner(accountId)).thenReturn(Optional.of(userId));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingResponseBody body = transactionService.exportTransactions(accountId, userId, TransactionExportFormat.CSV);
+        verifyNoInteractions(transactionExporter);
+        body.writeTo(out);
+        verify(transactionExporter).export(accountId, TransactionExportFormat.CSV, out);
+    }
+
+    @Test
+    void exportTransactions_accessDenied() {
+        when(bankAccountRepository.getAccountOwner(accountId)).thenReturn(Optional.of(UUID.randomUUID()));
+        assertThrows(AccessDeniedException.class, () ->
+                transactionService.exportTransactions(accountId, userId, TransactionExportFormat.NDJSON));
+        verifyNoInteractions(transactionExporter);
+    }
+
+    @Test
+    void getDailyBalances_carriesClosingBalanceOverDaysWithoutPostings() throws Exception {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        when(bankAccountRepository.getAccountOwner(accountId)).thenReturn(Optional.of(userId));
+        when(dailyBalanceRepository.getClosingBalanceBefore(accountId, from)).thenReturn(5000L);
+        when(dailyBalanceRepository.getDailyBalances(accountId, from, from.plusDays(3))).thenReturn(List.of(
+                DailyBalance.builder().accountId(accountId).balanceDate(from.plusDays(1))
+                        .credits(2500).debits(500).postings(3).closingBalance(7000).lastSequenceNumber(9).build()));
+
+        List<DailyBalanceResponse> report = transactionService.getDailyBalances(accountId, userId, from, from.plusDays(3));
+
+        assertEquals(List.of(from, from.plusDays(1), from.plusDays(2), from.plusDays(3)),
+                report.stream().map(DailyBalanceResponse::getDate).toList());
+        assertEquals(List.of(new BigDecimal("50.00"), new BigDecimal("70.00"), new BigDecimal("70.00"), new BigDecimal("70.00")),
+                report.stream().map(DailyBalanceResponse::getClosingBalance).toList());
+        assertEquals(List.of(0, 3, 0, 0), report.stream().map(DailyBalanceResponse::getPostings).toList());
+        assertEquals(new BigDecimal("25.00"), report.get(1).getCredits());
+        assertEquals(new BigDecimal("5.00"), report.get(1).getDebits());
+        assertEquals(new BigDecimal("0.00"), report.get(2).getCredits());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getDailyBalances_invalidRange() {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        assertThrows(IllegalArgumentException.class, () ->
+                transactionService.getDailyBalances(accountId, userId, from, from.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () ->
+                transactionService.getDailyBalances(accountId, userId, from, from.plusDays(366)));
+        verifyNoInteractions(dailyBalanceRepository);
+    }
+
+    @Test
+    void getDailyBalances_accessDenied() {
+        LocalDate day = LocalDate.of(2025, 3, 1);
+        when(bankAccountRepository.getAccountOwner(accountId)).thenReturn(Optional.of(UUID.randomUUID()));
         assertThrows(AccessDeniedException.class, () ->
-                transactionService.getTransactions(accountId, userId));
+                transactionService.getDailyBalances(accountId, userId, day, day));
+        verifyNoInteractions(dailyBalanceRepository);
     }
 
     @Test
     void getTransaction_success() throws Exception {
-        when(bankAccountRepository.countBankAccounts(accountId, userId)).thenReturn(1);
-        Transaction txn = Transaction.builder().transactionId(transactionId).amount(BigDecimal.TEN).type(TransactionType.DEPOSIT).build();
-        when(transactionRepository.getTransaction(transactionId, accountId)).thenReturn(txn);
+        Transaction txn = Transaction.builder().transactionId(transactionId).amount(1000).type(TransactionType.DEPOSIT).build();
+        when(transactionRepository.getTransaction(transactionId, accountId, userId)).thenReturn(Optional.of(txn));
         TransactionResponse response = transactionService.getTransaction(transactionId, accountId, userId);
         assertEquals(transactionId, response.getTransactionId());
+        verifyNoInteractions(bankAccountRepository);
     }
 
     @Test
     void getTransaction_accessDenied() {
-        when(bankAccountRepository.countBankAccounts(accountId, userId)).thenReturn(0);
+        when(transactionRepository.getTransaction(transactionId, accountId, userId)).thenReturn(Optional.empty());
+        when(bankAccountRepository.getAccountOwner(accountId)).thenReturn(Optional.of(UUID.randomUUID()));
         assertThrows(AccessDeniedException.class, () ->
                 transactionService.getTransaction(transactionId, accountId, userId));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTransaction_notFound() {
+        when(transactionRepository.getTransaction(transactionId, accountId, userId)).thenReturn(Optional.empty());
+        when(bankAccountRepository.getAccountOwner(accountId)).thenReturn(Optional.of(userId));
+        assertThrows(ResourceNotFoundException.class, () ->
+                transactionService.getTransaction(transactionId, accountId, userId));
+    }
+
+    private Transaction historyEntry(ZonedDateTime timestamp) {
+        return Transaction.builder()
+                .transactionId(UUID.randomUUID())
+                .accountId(accountId)
+                .amount(100)
+                .type(TransactionType.DEPOSIT)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRows(Transaction... rows) {
+        when(transactionRepository.getTransactionsById(any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0, Collection.class);
+            return List.of(rows).stream().filter(row -> ids.contains(row.getTransactionId())).toList();
+        });
+    }
+
+    private static JsonNode page(byte[] json) throws Exception {
+        return OBJECT_MAPPER.readTree(json);
+    }
+}
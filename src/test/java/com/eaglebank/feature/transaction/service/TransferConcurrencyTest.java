@@ -0,0 +1,169 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.account.repository.BankAccountRepository;
+import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.eaglebank.feature.account.web.model.AccountType;
+import com.eaglebank.feature.transaction.repository.DailyBalanceRepository;
+import com.eaglebank.feature.transaction.repository.IdempotencyKeyRepository;
+import com.eaglebank.feature.transaction.repository.TransactionRepository;
+import com.eaglebank.feature.transaction.web.model.TransferRequest;
+import com.eaglebank.feature.user.repository.UserRepository;
+import com.eaglebank.feature.user.repository.domain.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs opposing transfers between the same pairs of accounts: half the threads send A to B while the other
+ * half send B to A. Every transfer must complete, with no deadlock or lock timeout, and money must be conserved.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:transfer-stress")
+class TransferConcurrencyTest {
+    private static final int PAIRS = 4;
+    private static final int THREADS = PAIRS * 2;
+    private static final int TRANSFERS_PER_THREAD = 250;
+    private static final int TRANSFERS = THREADS * TRANSFERS_PER_THREAD;
+    private static final long OPENING_BALANCE = TRANSFERS * 100L;
+    private static final AtomicInteger ACCOUNT_NUMBERS = new AtomicInteger(20000000);
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private TransactionExporter transactionExporter;
+    @Autowired
+    private TransactionJsonCache transactionJsonCache;
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+    @Autowired
+    private DailyBalanceRepository dailyBalanceRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.createUser(User.builder().name("Transfers").email(UUID.randomUUID() + "@test.com").build());
+    }
+
+    @Test
+    @DisplayName("Given opposing transfers on one instance, when run concurrently, then all complete without deadlock")
+    void opposingTransfers_sharedSequencer() throws Exception {
+        // Warm up so the measurement does not pay for class loading and JIT
+        runOpposingTransfers(thread -> transactionService);
+        long rate = runOpposingTransfers(thread -> transactionService);
+        log.info("Opposing transfers/sec on one instance: {}", rate);
+    }
+
+    @Test
+    @DisplayName("Given opposing transfers from separate instances, when run concurrently, then row lock order prevents deadlock")
+    void opposingTransfers_separateSequencers() throws Exception {
+        // Each thread gets its own sequencer, as if every request landed on a different node, so only the
+        // database row locks stand between opposing transfers
+        List<TransactionService> instances = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            instances.add(new TransactionService(transactionRepository, bankAccountRepository,
+                    new AccountSequencer(64, new SimpleMeterRegistry()), transactionTemplate, Optional.empty(),
+                    transactionExporter, idempotencyKeyRepository, idempotentRequests, transactionJsonCache,
+                    dailyBalanceRepository));
+        }
+        runOpposingTransfers(instances::get);
+        long rate = runOpposingTransfers(instances::get);
+        log.info("Opposing transfers/sec across separate instances: {}", rate);
+    }
+
+    private long runOpposingTransfers(IntFunction<TransactionService> serviceForThread) throws Exception {
+        List<UUID[]> pairs = new ArrayList<>();
+        for (int p = 0; p < PAIRS; p++) {
+            pairs.add(new UUID[]{createAccount(), createAccount()});
+        }
+        ConcurrentLinkedQueue<Exception> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long elapsed;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                UUID[] pair = pairs.get(t / 2);
+                UUID from = t % 2 == 0 ? pair[0] : pair[1];
+                UUID to = t % 2 == 0 ? pair[1] : pair[0];
+                TransactionService service = serviceForThread.apply(t);
+                futures.add(executor.submit(() -> {
+                    TransferRequest request = TransferRequest.builder().toAccountId(to).amount(BigDecimal.ONE).build();
+                    for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                        try {
+                            service.transfer(from, userId, request);
+                        } catch (Exception e) {
+                            failures.add(e);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            elapsed = System.nanoTime() - start;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of(), List.copyOf(failures));
+        for (UUID[] pair : pairs) {
+            // Each side sent and received the same number of transfers, so both balances end where they started
+            assertEquals(OPENING_BALANCE, balance(pair[0]));
+            assertEquals(OPENING_BALANCE, balance(pair[1]));
+            assertEquals(TRANSFERS_PER_THREAD * 2, ledgerRows(pair[0]));
+            assertEquals(TRANSFERS_PER_THREAD * 2, ledgerRows(pair[1]));
+        }
+        return TRANSFERS * 1_000_000_000L / Math.max(elapsed, 1);
+    }
+
+    private UUID createAccount() {
+        return bankAccountRepository.createAccount(userId, BankAccount.builder()
+                .name("transfer")
+                .accountType(AccountType.CURRENT)
+                .accountNumber(String.valueOf(ACCOUNT_NUMBERS.incrementAndGet()))
+                .sortCode("10-10-10")
+                .balance(OPENING_BALANCE)
+                .currency("GBP")
+                .build());
+    }
+
+    private long balance(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM bank_account WHERE account_id = ?", Long.class, accountId);
+    }
+
+    private int ledgerRows(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction WHERE account_id = ?", Integer.class, accountId);
+    }
+}
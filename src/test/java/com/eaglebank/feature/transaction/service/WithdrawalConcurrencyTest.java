@@ -0,0 +1,183 @@
+package com.eaglebank.feature.transaction.service;
+
+import com.eaglebank.feature.account.repository.BankAccountRepository;
+import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.eaglebank.feature.account.web.model.AccountType;
+import com.eaglebank.feature.common.exception.InsufficientFundsException;
+import com.eaglebank.feature.transaction.web.model.TransactionRequest;
+import com.eaglebank.feature.transaction.web.model.TransactionType;
+import com.eaglebank.feature.user.repository.UserRepository;
+import com.eaglebank.feature.user.repository.domain.User;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers a single hot account with concurrent withdrawals. The guarded debit must never overdraw the account,
+ * and is timed against the read-then-write flow it replaced.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:withdrawal-stress")
+class WithdrawalConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int WITHDRAWALS_PER_THREAD = 250;
+    private static final int ATTEMPTS = THREADS * WITHDRAWALS_PER_THREAD;
+    private static final long AMOUNT = 100;
+    private static final long OPENING_BALANCE = AMOUNT * (ATTEMPTS / 2);
+    private static final TransactionRequest WITHDRAWAL = TransactionRequest.builder()
+            .amount(BigDecimal.ONE)
+            .type(TransactionType.WITHDRAW)
+            .build();
+    private static final AtomicInteger ACCOUNT_NUMBERS = new AtomicInteger(10000000);
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.createUser(User.builder().name("Hot Account").email(UUID.randomUUID() + "@test.com").build());
+    }
+
+    @Test
+    @DisplayName("Given one hot account, when many threads withdraw concurrently, then the balance never goes negative")
+    void concurrentWithdrawals_neverOverdraw() throws Exception {
+        UUID accountId = createAccount(OPENING_BALANCE);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(() -> {
+            try {
+                guardedWithdrawal(accountId);
+                succeeded.incrementAndGet();
+            } catch (InsufficientFundsException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(ATTEMPTS / 2, succeeded.get());
+        assertEquals(ATTEMPTS - ATTEMPTS / 2, rejected.get());
+        assertEquals(0, balance(accountId));
+        assertEquals(succeeded.get(), ledgerRows(accountId));
+        // Every row carries its own position and the balance it left, with no gaps or repeats
+        assertEquals(succeeded.get(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction WHERE account_id = ? AND sequence_number BETWEEN 1 AND ? " +
+                        "AND balance_after = ? - sequence_number * ?",
+                Integer.class, accountId, succeeded.get(), OPENING_BALANCE, AMOUNT));
+    }
+
+    @Test
+    @DisplayName("Given one hot account, when withdrawals race, then report throughput against read-then-write")
+    void concurrentWithdrawals_throughputAgainstReadThenWrite() throws Exception {
+        long fundedBalance = AMOUNT * ATTEMPTS * 2;
+        // Warm both paths up so neither measurement pays for class loading and JIT
+        UUID warmUp = createAccount(fundedBalance);
+        runConcurrently(() -> guardedWithdrawal(warmUp));
+        runConcurrently(() -> readThenWriteWithdrawal(warmUp));
+
+        UUID readThenWrite = createAccount(fundedBalance);
+        long readThenWriteRate = rate(runConcurrently(() -> readThenWriteWithdrawal(readThenWrite)));
+        UUID guarded = createAccount(fundedBalance);
+        long guardedRate = rate(runConcurrently(() -> guardedWithdrawal(guarded)));
+
+        log.info("Hot account withdrawals/sec: guarded debit {}, read-then-write {}", guardedRate, readThenWriteRate);
+        assertEquals(fundedBalance - AMOUNT * ATTEMPTS, balance(guarded));
+        assertEquals(ATTEMPTS, ledgerRows(guarded));
+    }
+
+    private void guardedWithdrawal(UUID accountId) throws Exception {
+        transactionService.createTransaction(accountId, userId, WITHDRAWAL, null);
+    }
+
+    // The pre-change service flow: read the balance, check it in Java, then write
+    private void readThenWriteWithdrawal(UUID accountId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            long current = jdbcTemplate.queryForObject(
+                    "SELECT balance FROM bank_account WHERE account_id = ? AND user_id = ?", Long.class, accountId, userId);
+            if (current < AMOUNT) {
+                throw new InsufficientFundsException("Insufficient funds");
+            }
+            jdbcTemplate.update("UPDATE bank_account SET balance = balance - ?, last_sequence_number = last_sequence_number + 1, " +
+                    "updated_timestamp = CURRENT_TIMESTAMP WHERE account_id = ?", AMOUNT, accountId);
+            long sequenceNumber = jdbcTemplate.queryForObject(
+                    "SELECT last_sequence_number FROM bank_account WHERE account_id = ?", Long.class, accountId);
+            jdbcTemplate.update("INSERT INTO transaction (transaction_id, amount, type, timestamp, account_id, balance_after, sequence_number) " +
+                            "VALUES (?, ?, ?, CURRENT_TIMESTAMP, ?, ?, ?)",
+                    UUID.randomUUID(), AMOUNT, TransactionType.WITHDRAW.name(), accountId, current - AMOUNT, sequenceNumber);
+        });
+    }
+
+    private UUID createAccount(long openingBalance) {
+        return bankAccountRepository.createAccount(userId, BankAccount.builder()
+                .name("hot")
+                .accountType(AccountType.CURRENT)
+                .accountNumber(String.valueOf(ACCOUNT_NUMBERS.incrementAndGet()))
+                .sortCode("10-10-10")
+                .balance(openingBalance)
+                .currency("GBP")
+                .build());
+    }
+
+    private long runConcurrently(Withdrawal withdrawal) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < WITHDRAWALS_PER_THREAD; i++) {
+                        withdrawal.run();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long balance(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM bank_account WHERE account_id = ?", Long.class, accountId);
+    }
+
+    private int ledgerRows(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction WHERE account_id = ?", Integer.class, accountId);
+    }
+
+    private static long rate(long elapsedNanos) {
+        return ATTEMPTS * 1_000_000_000L / Math.max(elapsedNanos, 1);
+    }
+
+    @FunctionalInterface
+    private interface Withdrawal {
+        void run() throws Exception;
+    }
+}
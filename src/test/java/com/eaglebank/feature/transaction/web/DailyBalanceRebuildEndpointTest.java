@@ -0,0 +1,131 @@
+package com.eaglebank.feature.transaction.web;
+
+import com.eaglebank.feature.account.repository.BankAccountRepository;
+import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.eaglebank.feature.account.web.model.AccountType;
+import com.eaglebank.feature.auth.JwtProvider;
+import com.eaglebank.feature.user.repository.UserRepository;
+import com.eaglebank.feature.user.repository.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:daily-balance-rebuild",
+        "eaglebank.auth.operator-user-ids=" + DailyBalanceRebuildEndpointTest.OPERATOR_ID})
+@AutoConfigureMockMvc
+class DailyBalanceRebuildEndpointTest {
+    static final String OPERATOR_ID = "00000000-0000-0000-0000-00000000000b";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtProvider jwtProvider;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String operatorToken;
+    private String customerToken;
+    // In the database's own id order, which is what ranges are bounded by
+    private List<UUID> accountIds;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        UUID userId = userRepository.createUser(User.builder().name("Drift").email(UUID.randomUUID() + "@test.com").build());
+        operatorToken = "Bearer " + jwtProvider.generateToken(UUID.fromString(OPERATOR_ID));
+        customerToken = "Bearer " + jwtProvider.generateToken(userId);
+        UUID first = createAccount(userId);
+        UUID second = createAccount(userId);
+        deposit(first, customerToken);
+        deposit(second, customerToken);
+        accountIds = jdbcTemplate.queryForList("SELECT account_id FROM bank_account WHERE account_id IN (?, ?) " +
+                "ORDER BY account_id", UUID.class, first, second);
+
+        // Drift the rollups away from the ledger, as a lost write or a bad backfill would
+        jdbcTemplate.update("UPDATE daily_account_balance SET credits = 1, closing_balance = 1 WHERE account_id IN (?, ?)",
+                first, second);
+    }
+
+    @Test
+    @DisplayName("Given a drifted account, when an operator rebuilds it, then its rollup matches the ledger again")
+    void rebuildAccount_restoresDriftedRollup() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/actuator/dailybalances/{accountId}", accountIds.get(0))
+                        .header("Authorization", operatorToken))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rebuilt").value(1));
+
+        assertEquals(1000L, closingBalance(accountIds.get(0)));
+        assertEquals(1L, closingBalance(accountIds.get(1)));
+    }
+
+    @Test
+    @DisplayName("Given drifted accounts, when an operator rebuilds a range, then only accounts inside it are rebuilt")
+    void rebuildRange_onlyRebuildsAccountsInRange() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/actuator/dailybalances")
+                        .header("Authorization", operatorToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"upTo\": \"" + accountIds.get(0) + "\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        assertEquals(1000L, closingBalance(accountIds.get(0)));
+        assertEquals(1L, closingBalance(accountIds.get(1)));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/actuator/dailybalances")
+                        .header("Authorization", operatorToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"after\": \"" + accountIds.get(0) + "\", \"upTo\": \"" + accountIds.get(1) + "\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rebuilt").value(1));
+        assertEquals(1000L, closingBalance(accountIds.get(1)));
+    }
+
+    @Test
+    @DisplayName("Given a customer token, when rebuilding, then the request is refused and nothing is rebuilt")
+    void rebuild_requiresOperatorToken() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/actuator/dailybalances/{accountId}", accountIds.get(0))
+                        .header("Authorization", customerToken))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        assertEquals(1L, closingBalance(accountIds.get(0)));
+    }
+
+    private void deposit(UUID accountId, String token) throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/v1/accounts/{accountId}/transactions", accountId)
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 10.00, \"type\": \"DEPOSIT\", \"currency\": \"GBP\"}"))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+    }
+
+    private long closingBalance(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT closing_balance FROM daily_account_balance WHERE account_id = ?",
+                Long.class, accountId);
+    }
+
+    private UUID createAccount(UUID userId) {
+        return bankAccountRepository.createAccount(userId, BankAccount.builder()
+                .name("current")
+                .accountType(AccountType.CURRENT)
+                .accountNumber(String.valueOf(ThreadLocalRandom.current().nextLong(10_000_000_000L, 99_999_999_999L)))
+                .sortCode("10-10-10")
+                .currency("GBP")
+                .build());
+    }
+}
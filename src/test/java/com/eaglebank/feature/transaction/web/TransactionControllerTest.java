@@ -1,12 +1,23 @@
 package com.eaglebank.feature.transaction.web;
 
 import com.eaglebank.feature.auth.JwtProvider;
+import com.eaglebank.feature.common.exception.ConflictException;
 import com.eaglebank.feature.common.exception.InsufficientFundsException;
 import com.eaglebank.feature.common.exception.ResourceNotFoundException;
+import com.eaglebank.feature.common.web.ResourceVersion;
 import com.eaglebank.feature.transaction.service.TransactionService;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionRequest;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionResponse;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionResult;
+import com.eaglebank.feature.transaction.web.model.BatchTransactionStatus;
+import com.eaglebank.feature.transaction.web.model.DailyBalanceResponse;
+import com.eaglebank.feature.transaction.web.model.ListTransactionsResponse;
+import com.eaglebank.feature.transaction.web.model.TransactionExportFormat;
 import com.eaglebank.feature.transaction.web.model.TransactionRequest;
 import com.eaglebank.feature.transaction.web.model.TransactionResponse;
 import com.eaglebank.feature.transaction.web.model.TransactionType;
+import com.eaglebank.feature.transaction.web.model.TransferRequest;
+import com.eaglebank.feature.transaction.web.model.TransferResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,16 +26,24 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -78,11 +97,38 @@ class TransactionControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    @DisplayName("Given an Idempotency-Key, when POST, then pass it on and return the transaction")
+    void createTransaction_idempotencyKey() throws Exception {
+        when(transactionService.createTransaction(eq(accountId), eq(userId), any(TransactionRequest.class), eq("key-1")))
+                .thenReturn(transactionResponse);
+        mockMvc.perform(post("/v1/accounts/{accountId}/transactions", accountId)
+                .header("Authorization", token)
+                .header("Idempotency-Key", "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(depositRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.transactionId").value(transactionId.toString()));
+    }
+
+    @Test
+    @DisplayName("Given an Idempotency-Key reused for another request, when POST, then return 409")
+    void createTransaction_idempotencyKeyConflict() throws Exception {
+        when(transactionService.createTransaction(eq(accountId), eq(userId), any(TransactionRequest.class), eq("key-1")))
+                .thenThrow(new ConflictException("Idempotency-Key has already been used for a different request"));
+        mockMvc.perform(post("/v1/accounts/{accountId}/transactions", accountId)
+                .header("Authorization", token)
+                .header("Idempotency-Key", "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(depositRequest)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @DisplayName("Given insufficient funds, when POST, then return 422")
     void createTransaction_insufficientFunds() throws Exception {
         doThrow(new InsufficientFundsException("Insufficient funds")).when(transactionService)
-                .createTransaction(eq(accountId), eq(userId), any(TransactionRequest.class));
+                .createTransaction(eq(accountId), eq(userId), any(TransactionRequest.class), isNull());
         mockMvc.perform(post("/v1/accounts/{accountId}/transactions", accountId)
                 .header("Authorization", token)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -94,7 +140,7 @@ class TransactionControllerTest {
     @DisplayName("Given forbidden account, when POST, then return 403")
     void createTransaction_forbidden() throws Exception {
         doThrow(new AccessDeniedException("Forbidden")).when(transactionService)
-                .createTransaction(eq(accountId), eq(userId), any(TransactionRequest.class));
+                .createTransaction(eq(accountId), eq(userId), any(TransactionRequest.class), isNull());
         mockMvc.perform(post("/v1/accounts/{accountId}/transactions", accountId)
                 .header("Authorization", token)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -106,7 +152,7 @@ class TransactionControllerTest {
     @DisplayName("Given non-existent account, when POST, then return 404")
     void createTransaction_accountNotFound() throws Exception {
         doThrow(new ResourceNotFoundException("Not found")).when(transactionService)
-                .createTransaction(eq(accountId), eq(userId), any(TransactionRequest.class));
+                .createTransaction(eq(accountId), eq(userId), any(TransactionRequest.class), isNull());
         mockMvc.perform(post("/v1/accounts/{accountId}/transactions", accountId)
                 .header("Authorization", token)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -125,19 +171,163 @@ class TransactionControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Given a valid batch, when POST batch, then return 200 with per-item results")
+    void createTransactions_success() throws Exception {
+        BatchTransactionResponse response = BatchTransactionResponse.builder()
+                .balance(BigDecimal.valueOf(50))
+                .results(List.of(BatchTransactionResult.builder().index(0).status(BatchTransactionStatus.ACCEPTED).transactionId(transactionId).build()))
+                .build();
+        when(transactionService.createTransactions(eq(accountId), eq(userId), any(BatchTransactionRequest.class))).thenReturn(response);
+        mockMvc.perform(post("/v1/accounts/{accountId}/transactions/batch", accountId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(BatchTransactionRequest.builder().transactions(List.of(depositRequest)).build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value("ACCEPTED"))
+                .andExpect(jsonPath("$.results[0].transactionId").value(transactionId.toString()));
+    }
+
+    @Test
+    @DisplayName("Given an empty batch, when POST batch, then return 400")
+    void createTransactions_empty() throws Exception {
+        mockMvc.perform(post("/v1/accounts/{accountId}/transactions/batch", accountId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(BatchTransactionRequest.builder().transactions(List.of()).build())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Given a valid transfer, when POST transfer, then return 201 and both legs")
+    void transfer_success() throws Exception {
+        UUID toAccountId = UUID.randomUUID();
+        TransferRequest request = TransferRequest.builder().toAccountId(toAccountId).amount(BigDecimal.TEN).build();
+        TransferResponse response = TransferResponse.builder()
+                .debitTransactionId(UUID.randomUUID())
+                .creditTransactionId(UUID.randomUUID())
+                .balance(BigDecimal.valueOf(90))
+                .build();
+        when(transactionService.transfer(eq(accountId), eq(userId), any(TransferRequest.class))).thenReturn(response);
+        mockMvc.perform(post("/v1/accounts/{accountId}/transactions/transfer", accountId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.debitTransactionId").value(response.getDebitTransactionId().toString()))
+                .andExpect(jsonPath("$.creditTransactionId").value(response.getCreditTransactionId().toString()))
+                .andExpect(jsonPath("$.balance").value(90));
+    }
+
+    @Test
+    @DisplayName("Given insufficient funds, when POST transfer, then return 422")
+    void transfer_insufficientFunds() throws Exception {
+        TransferRequest request = TransferRequest.builder().toAccountId(UUID.randomUUID()).amount(BigDecimal.TEN).build();
+        when(transactionService.transfer(eq(accountId), eq(userId), any(TransferRequest.class)))
+                .thenThrow(new InsufficientFundsException("Insufficient funds"));
+        mockMvc.perform(post("/v1/accounts/{accountId}/transactions/transfer", accountId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @DisplayName("Given no destination account, when POST transfer, then return 400")
+    void transfer_missingDestination() throws Exception {
+        TransferRequest request = TransferRequest.builder().amount(BigDecimal.TEN).build();
+        mockMvc.perform(post("/v1/accounts/{accountId}/transactions/transfer", accountId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Given own account, when GET list, then return 200 and transactions")
     void listTransactions_success() throws Exception {
-        when(transactionService.getTransactions(accountId, userId)).thenReturn(List.of(transactionResponse));
+        ListTransactionsResponse page = ListTransactionsResponse.builder()
+                .transactions(List.of(transactionResponse))
+                .nextCursor("next")
+                .build();
+        when(transactionService.getTransactions(accountId, userId, 50, null)).thenReturn(objectMapper.writeValueAsBytes(page));
         mockMvc.perform(get("/v1/accounts/{accountId}/transactions", accountId)
                 .header("Authorization", token))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.transactions[0].transactionId").value(transactionId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @DisplayName("Given limit and cursor, when GET list, then they are passed to the service")
+    void listTransactions_withCursor() throws Exception {
+        when(transactionService.getTransactions(accountId, userId, 10, "cursor"))
+                .thenReturn(objectMapper.writeValueAsBytes(ListTransactionsResponse.builder().transactions(List.of()).build()));
+        mockMvc.perform(get("/v1/accounts/{accountId}/transactions", accountId)
+                .param("limit", "10")
+                .param("after", "cursor")
+                .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Given an unchanged history, when GET list with If-None-Match, then return 304 without reading it")
+    void listTransactions_notModified() throws Exception {
+        when(transactionService.getTransactionsVersion(accountId, userId))
+                .thenReturn(Optional.of(ResourceVersion.of("7")));
+        mockMvc.perform(get("/v1/accounts/{accountId}/transactions", accountId)
+                .header("Authorization", token)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isNotModified());
+        verify(transactionService, never()).getTransactions(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Given only If-Modified-Since, when GET list, then return 200 since dates are not validators")
+    void listTransactions_ifModifiedSinceIgnored() throws Exception {
+        when(transactionService.getTransactionsVersion(accountId, userId))
+                .thenReturn(Optional.of(ResourceVersion.of("7")));
+        when(transactionService.getTransactions(accountId, userId, 50, null))
+                .thenReturn(objectMapper.writeValueAsBytes(ListTransactionsResponse.builder().transactions(List.of()).build()));
+        mockMvc.perform(get("/v1/accounts/{accountId}/transactions", accountId)
+                .header("Authorization", token)
+                .header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 Jan 2099 10:00:00 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    @DisplayName("Given a new posting since the ETag, when GET list, then return 200 with the new ETag")
+    void listTransactions_modified() throws Exception {
+        when(transactionService.getTransactionsVersion(accountId, userId))
+                .thenReturn(Optional.of(ResourceVersion.of("8")));
+        when(transactionService.getTransactions(accountId, userId, 50, null))
+                .thenReturn(objectMapper.writeValueAsBytes(
+                        ListTransactionsResponse.builder().transactions(List.of(transactionResponse)).build()));
+        mockMvc.perform(get("/v1/accounts/{accountId}/transactions", accountId)
+                .header("Authorization", token)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"8\""))
+                .andExpect(jsonPath("$.transactions[0].transactionId").value(transactionId.toString()));
+    }
+
+    @Test
+    @DisplayName("Given a limit out of range, when GET list, then return 400")
+    void listTransactions_invalidLimit() throws Exception {
+        mockMvc.perform(get("/v1/accounts/{accountId}/transactions", accountId)
+                .param("limit", "0")
+                .header("Authorization", token))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     @DisplayName("Given forbidden account, when GET list, then return 403")
     void listTransactions_forbidden() throws Exception {
-        when(transactionService.getTransactions(accountId, userId)).thenThrow(new AccessDeniedException("Forbidden"));
+        when(transactionService.getTransactions(accountId, userId, 50, null)).thenThrow(new AccessDeniedException("Forbidden"));
         mockMvc.perform(get("/v1/accounts/{accountId}/transactions", accountId)
                 .header("Authorization", token))
                 .andExpect(status().isForbidden());
@@ -146,12 +336,117 @@ class TransactionControllerTest {
     @Test
     @DisplayName("Given non-existent account, when GET list, then return 404")
     void listTransactions_accountNotFound() throws Exception {
-        when(transactionService.getTransactions(accountId, userId)).thenThrow(new ResourceNotFoundException("Not found"));
+        when(transactionService.getTransactions(accountId, userId, 50, null)).thenThrow(new ResourceNotFoundException("Not found"));
         mockMvc.perform(get("/v1/accounts/{accountId}/transactions", accountId)
                 .header("Authorization", token))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Given own account, when GET export as CSV, then stream the history as an attachment")
+    void exportTransactions_csv() throws Exception {
+        when(transactionService.exportTransactions(accountId, userId, TransactionExportFormat.CSV))
+                .thenReturn(out -> out.write("transactionId,amount,type,timestamp\n".getBytes(StandardCharsets.UTF_8)));
+        MvcResult result = mockMvc.perform(get("/v1/accounts/{accountId}/transactions/export", accountId)
+                .param("format", "CSV")
+                .header("Authorization", token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", containsString("transactions-" + accountId + ".csv")))
+                .andExpect(content().string("transactionId,amount,type,timestamp\n"));
+    }
+
+    @Test
+    @DisplayName("Given forbidden account, when GET export, then return 403")
+    void exportTransactions_forbidden() throws Exception {
+        when(transactionService.exportTransactions(accountId, userId, TransactionExportFormat.NDJSON))
+                .thenThrow(new AccessDeniedException("Forbidden"));
+        mockMvc.perform(get("/v1/accounts/{accountId}/transactions/export", accountId)
+                .header("Authorization", token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Given an unknown format, when GET export, then return 400")
+    void exportTransactions_unknownFormat() throws Exception {
+        mockMvc.perform(get("/v1/accounts/{accountId}/transactions/export", accountId)
+                .param("format", "XML")
+                .header("Authorization", token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Given own account and a date range, when GET daily balances, then return one entry per day")
+    void getDailyBalances_success() throws Exception {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        when(transactionService.getDailyBalances(accountId, userId, from, from.plusDays(1))).thenReturn(List.of(
+                DailyBalanceResponse.builder().date(from).credits(new BigDecimal("25.00")).debits(new BigDecimal("5.00"))
+                        .postings(3).closingBalance(new BigDecimal("70.00")).build(),
+                DailyBalanceResponse.builder().date(from.plusDays(1)).credits(new BigDecimal("0.00")).debits(new BigDecimal("0.00"))
+                        .postings(0).closingBalance(new BigDecimal("70.00")).build()));
+        mockMvc.perform(get("/v1/accounts/{accountId}/transactions/daily-balances", accountId)
+                .param("from", "2025-03-01")
+                .param("to", "2025-03-02")
+                .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].date").value("2025-03-01"))
+                .andExpect(jsonPath("$[0].postings").value(3))
+                .andExpect(jsonPath("$[1].closingBalance").value(70.00));
+    }
+
+    @Test
+    @DisplayName("Given a reversed or missing date range, when GET daily balances, then return 400")
+    void getDailyBalances_invalidRange() throws Exception {
+        when(transactionService.getDailyBalances(eq(accountId), eq(userId), any(), any()))
+                .thenThrow(new IllegalArgumentException("'from' must not be after 'to'"));
+        mockMvc.perform(get("/v1/accounts/{accountId}/transactions/daily-balances", accountId)
+                .param("from", "2025-03-02")
+                .param("to", "2025-03-01")
+                .header("Authorization", token))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/accounts/{accountId}/transactions/daily-balances", accountId)
+                .param("from", "2025-03-01")
+                .header("Authorization", token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Given forbidden account, when GET daily balances, then return 403")
+    void getDailyBalances_forbidden() throws Exception {
+        when(transactionService.getDailyBalances(eq(accountId), eq(userId), any(), any()))
+                .thenThrow(new AccessDeniedException("Forbidden"));
+        mockMvc.perform(get("/v1/accounts/{accountId}/transactions/daily-balances", accountId)
+                .param("from", "2025-03-01")
+                .param("to", "2025-03-01")
+                .header("Authorization", token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Given an amount above the per-request limit, when POST or transfer, then return 400")
+    void amountAboveLimit_rejected() throws Exception {
+        TransactionRequest deposit = TransactionRequest.builder()
+                .amount(new BigDecimal("50000000000000000.00")).type(TransactionType.DEPOSIT).build();
+        mockMvc.perform(post("/v1/accounts/{accountId}/transactions", accountId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(deposit)))
+                .andExpect(status().isBadRequest());
+        TransferRequest transfer = TransferRequest.builder()
+                .toAccountId(UUID.randomUUID()).amount(new BigDecimal("1000000000.01")).build();
+        mockMvc.perform(post("/v1/accounts/{accountId}/transactions/transfer", accountId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transfer)))
+                .andExpect(status().isBadRequest());
+        verify(transactionService, never()).createTransaction(any(), any(), any(), any());
+        verify(transactionService, never()).transfer(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Given own account and valid transaction, when GET by id, then return 200 and transaction")
     void getTransactionById_success() throws Exception {
@@ -2,21 +2,27 @@ package com.eaglebank.feature.user.service;
 
 import com.eaglebank.feature.account.repository.BankAccountRepository;
 import com.eaglebank.feature.account.repository.domain.BankAccount;
+import com.eaglebank.feature.auth.repository.domain.Identity;
 import com.eaglebank.feature.auth.service.IdentityService;
 import com.eaglebank.feature.common.exception.ConflictException;
 import com.eaglebank.feature.common.exception.ResourceNotFoundException;
 import com.eaglebank.feature.user.repository.UserRepository;
 import com.eaglebank.feature.user.repository.domain.User;
+import com.eaglebank.feature.user.web.model.CreateUserRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class UserServiceTest {
@@ -26,7 +32,8 @@ class UserServiceTest {
     private IdentityService identityService;
     @Mock
     private BankAccountRepository bankAccountRepository;
-    @InjectMocks
+    @Mock
+    private PlatformTransactionManager transactionManager;
     private UserService userService;
     private UUID userId;
     private User user;
@@ -34,10 +41,32 @@ class UserServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        userService = new UserService(userRepository, identityService, bankAccountRepository,
+                new TransactionTemplate(transactionManager));
         userId = UUID.randomUUID();
         user = User.builder().userId(userId).name("Test User").build();
     }
 
+    @Test
+    @DisplayName("Given a new user, when createUser, then the password is hashed before the transaction opens")
+    void createUser_hashesOutsideTransaction() {
+        // Given
+        CreateUserRequest request = CreateUserRequest.builder()
+                .name("Test User").email("user@test.com").password("secret").build();
+        when(identityService.encodePassword("secret")).thenReturn("hash");
+        when(userRepository.createUser(any())).thenReturn(userId);
+        // When
+        assertEquals(userId, userService.createUser(request).getUserId());
+        // Then
+        InOrder inOrder = inOrder(identityService, transactionManager, userRepository);
+        inOrder.verify(identityService).encodePassword("secret");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).createUser(any());
+        inOrder.verify(identityService).createIdentity(userId,
+                Identity.builder().email("user@test.com").password("hash").build());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
     @Test
     @DisplayName("Given a user with no bank accounts, when deleteUser, then user and identity are deleted")
     void deleteUser_success() {
@@ -1,7 +1,9 @@
 package com.eaglebank.feature.user.web;
 
 import com.eaglebank.feature.auth.JwtProvider;
+import com.eaglebank.feature.auth.ratelimit.AuthRateLimits;
 import com.eaglebank.feature.common.exception.ResourceNotFoundException;
+import com.eaglebank.feature.common.exception.TooManyRequestsException;
 import com.eaglebank.feature.user.service.UserService;
 import com.eaglebank.feature.user.web.model.CreateUserRequest;
 import com.eaglebank.feature.user.web.model.UpdateUserRequest;
@@ -19,10 +21,14 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import static com.eaglebank.feature.common.TestIds.USER_ID;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -33,6 +39,8 @@ class UserControllerTest {
     private JwtProvider jwtProvider;
     @MockitoBean
     private UserService userService;
+    @MockitoBean
+    private AuthRateLimits authRateLimits;
     @Autowired
     private MockMvc mockMvc;
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -66,6 +74,19 @@ class UserControllerTest {
         verify(userService).createUser(any(CreateUserRequest.class));
     }
 
+    @Test
+    @DisplayName("Given too many registrations for an email, when POST /v1/users, then return 429 without creating the user")
+    void createUser_rateLimited() throws Exception {
+        doThrow(new TooManyRequestsException("Too many attempts, please retry later", java.time.Duration.ofSeconds(60)))
+                .when(authRateLimits).checkRegistration(anyString(), eq("swati@gmail.com"));
+        mockMvc.perform(post("/v1/users")
+                        .content(objectMapper.writeValueAsString(createUserRequest))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "60"));
+        verifyNoInteractions(userService);
+    }
+
     @Test
     @DisplayName("Given a valid userId and authentication, when GET /v1/users/{userId}, then return 200 and user details")
     void getUser() throws Exception {